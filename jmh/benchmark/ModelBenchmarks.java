@@ -0,0 +1,86 @@
+package benchmark;
+
+import model.Booking;
+import model.Customer;
+import model.TravelPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Package pricing and entity validation. validate returns nothing, so those benchmarks hand the
+ * entity to the Blackhole after the checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ModelBenchmarks {
+    private TravelPackage travelPackage;
+    private Customer customer;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        travelPackage = new TravelPackage(1, "Bench Package", 1, 10.0);
+        BenchmarkData.bookings(random, 20, 1).forEach(travelPackage::addBooking);
+        customer = BenchmarkData.customer(1);
+        booking = BenchmarkData.booking(random, 1);
+    }
+
+    @Benchmark
+    public double travelPackageCalculatePrice() {
+        return travelPackage.calculatePrice();
+    }
+
+    @Benchmark
+    public void customerValidate(Blackhole blackhole) {
+        customer.validate();
+        blackhole.consume(customer);
+    }
+
+    @Benchmark
+    public void customerValidateLegacy(Blackhole blackhole) {
+        legacyValidate(customer);
+        blackhole.consume(customer);
+    }
+
+    @Benchmark
+    public void bookingValidate(Blackhole blackhole) {
+        booking.validate();
+        blackhole.consume(booking);
+    }
+
+    // Customer.validate as it was before the precompiled rules, kept as the comparison baseline
+    private static void legacyValidate(Customer c) {
+        if (c.getName() == null || c.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Customer name cannot be empty");
+        }
+        if (c.getName().length() < 2) {
+            throw new IllegalArgumentException("Customer name must be at least 2 characters");
+        }
+        if (c.getEmail() == null || !c.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        if (c.getPhone() == null || c.getPhone().trim().isEmpty()) {
+            throw new IllegalArgumentException("Phone number cannot be empty");
+        }
+        if (c.getPassportNumber() == null || c.getPassportNumber().trim().isEmpty()) {
+            throw new IllegalArgumentException("Passport number cannot be empty");
+        }
+    }
+}
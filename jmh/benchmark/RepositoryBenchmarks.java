@@ -0,0 +1,162 @@
+package benchmark;
+
+import model.Booking;
+import model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.BookingRepository;
+import repository.CustomerRepository;
+import repository.InMemoryBookingRepository;
+import repository.InMemoryCustomerRepository;
+import repository.interfaces.BookingRepositoryInterface;
+import repository.interfaces.CustomerRepositoryInterface;
+import service.CustomerService;
+import utils.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and service hot paths. {@code target=memory} (the default) runs against the
+ * in-memory repositories, which stand in for the database so the benchmarks work offline;
+ * {@code target=jdbc} ({@code -Pjmh.target=jdbc}) goes through {@link DatabaseConnection}.
+ * <p>
+ * Fixtures come from {@link BenchmarkData#SEED}, so every run creates and reads the same rows.
+ * Write benchmarks delete what they created {@value #RETAINED_ROWS} operations earlier, which
+ * keeps the table size flat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RepositoryBenchmarks {
+    private static final int RETAINED_ROWS = 10_000;
+    private static final int SEEDED_ROWS = 1_000;
+
+    @Param({"memory"})
+    public String target;
+
+    private BookingRepositoryInterface bookings;
+    private CustomerRepositoryInterface customers;
+    private CustomerService customerService;
+    private int customerId;
+
+    private Random random;
+    private int[] seededIds;
+    private int nextSeeded;
+    private int customerCounter;
+    private final int[] createdBookings = new int[RETAINED_ROWS];
+    private int nextBooking;
+    private final int[] createdCustomers = new int[RETAINED_ROWS];
+    private int nextCustomer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean jdbc = target.equals("jdbc");
+        bookings = jdbc ? new BookingRepository() : new InMemoryBookingRepository();
+        customers = jdbc ? new CustomerRepository() : new InMemoryCustomerRepository();
+        customerService = new CustomerService(customers);
+        customerId = ensureCustomer(customers);
+
+        random = new Random(BenchmarkData.SEED);
+        List<Booking> seeded = new ArrayList<>(SEEDED_ROWS);
+        for (int i = 0; i < SEEDED_ROWS; i++) {
+            seeded.add(BenchmarkData.booking(random, customerId));
+        }
+        List<Booking> created = bookings.createAll(seeded).getCreated();
+        seededIds = new int[created.size()];
+        for (int i = 0; i < seededIds.length; i++) {
+            seededIds[i] = created.get(i).getId();
+        }
+        // Shuffle with the fixed seed so the access pattern is identical between runs
+        for (int i = seededIds.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = seededIds[i];
+            seededIds[i] = seededIds[j];
+            seededIds[j] = tmp;
+        }
+        // Well clear of the customer ensureCustomer uses, and the same on every run
+        customerCounter = (int) BenchmarkData.SEED * 1_000_000;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (int id : createdBookings) {
+            if (id != 0) {
+                bookings.delete(id);
+            }
+        }
+        for (int id : seededIds) {
+            bookings.delete(id);
+        }
+        for (int id : createdCustomers) {
+            if (id != 0) {
+                customers.delete(id);
+            }
+        }
+        if (target.equals("jdbc")) {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Booking bookingRepositoryCreate() {
+        Booking booking = BenchmarkData.booking(random, customerId);
+        bookings.create(booking);
+        int evicted = createdBookings[nextBooking];
+        if (evicted != 0) {
+            bookings.delete(evicted);
+        }
+        createdBookings[nextBooking] = booking.getId();
+        nextBooking = (nextBooking + 1) % RETAINED_ROWS;
+        return booking;
+    }
+
+    @Benchmark
+    public Booking bookingRepositoryGetById() {
+        int id = seededIds[nextSeeded];
+        nextSeeded = (nextSeeded + 1) % seededIds.length;
+        return bookings.getById(id);
+    }
+
+    @Benchmark
+    public List<Booking> bookingRepositoryGetAll() {
+        return bookings.getAll();
+    }
+
+    @Benchmark
+    public Customer customerServiceCreateCustomer() {
+        Customer customer = BenchmarkData.customer(customerCounter++);
+        customerService.createCustomer(customer);
+        int evicted = createdCustomers[nextCustomer];
+        if (evicted != 0) {
+            customers.delete(evicted);
+        }
+        createdCustomers[nextCustomer] = customer.getId();
+        nextCustomer = (nextCustomer + 1) % RETAINED_ROWS;
+        return customer;
+    }
+
+    private static int ensureCustomer(CustomerRepositoryInterface customers) {
+        Customer customer = BenchmarkData.customer(0);
+        return customers.findByEmail(customer.getEmail()).map(Customer::getId).orElseGet(() -> {
+            customers.create(customer);
+            return customer.getId();
+        });
+    }
+}
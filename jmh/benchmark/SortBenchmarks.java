@@ -0,0 +1,63 @@
+package benchmark;
+
+import model.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.BookingSorter;
+import utils.SortingUtils;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sorting bookings by price, against the stream/comparator implementation BookingSorter replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SortBenchmarks {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = BenchmarkData.bookings(new Random(BenchmarkData.SEED), size, 1);
+    }
+
+    @Benchmark
+    public List<Booking> sortByPrice() {
+        return SortingUtils.sortByPrice(bookings);
+    }
+
+    @Benchmark
+    public List<Booking> sortByPriceLegacy() {
+        return bookings.stream()
+                .sorted((b1, b2) -> Double.compare(b1.getTotalPrice(), b2.getTotalPrice()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Booking> sortByStatusDatePriceDesc() {
+        return BookingSorter.sort(bookings,
+                BookingSorter.Order.asc(BookingSorter.SortKey.STATUS),
+                BookingSorter.Order.asc(BookingSorter.SortKey.DATE),
+                BookingSorter.Order.desc(BookingSorter.SortKey.PRICE));
+    }
+}
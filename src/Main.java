@@ -1,11 +1,22 @@
 import controller.BookingController;
 import controller.CustomerController;
+import controller.TravelPackageController;
 import exception.InvalidInputException;
+import logging.EventLog;
 import model.*;
 import service.BookingService;
 import service.CustomerService;
+import service.TravelPackageService;
 import repository.BookingRepository;
+import repository.CachingBookingRepository;
+import repository.CachingCustomerRepository;
 import repository.CustomerRepository;
+import repository.MeteredBookingRepository;
+import repository.MeteredCustomerRepository;
+import repository.MeteredTravelPackageRepository;
+import repository.TravelPackageRepository;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import utils.DatabaseConnection;
 import utils.ReflectionUtils;
 
@@ -14,18 +25,26 @@ import java.util.List;
 import java.util.Optional;
 
 public class Main {
+    private static final EventLog LOG = EventLog.getDefault();
+
     public static void main(String[] args) {
         if (!DatabaseConnection.testConnection()) {
-            System.err.println("Database connection failed.");
+            LOG.warn("db.connection_failed").publish();
             return;
         }
 
         // DIP: Inject dependencies
-        CustomerService customerService = new CustomerService(new CustomerRepository());
-        BookingService bookingService = new BookingService(new BookingRepository());
+        CustomerService customerService = new CustomerService(new MeteredCustomerRepository(
+                new CachingCustomerRepository(new CustomerRepository(), 10_000, 300_000)));
+        CachingBookingRepository bookingRepository = new CachingBookingRepository(new BookingRepository(), 10_000, 300_000);
+        BookingService bookingService = new BookingService(new MeteredBookingRepository(bookingRepository));
+        // Bulk package transitions bypass the booking cache, so they evict what they change
+        TravelPackageService packageService = new TravelPackageService(
+                new MeteredTravelPackageRepository(new TravelPackageRepository()), bookingRepository::invalidate);
 
         CustomerController customerController = new CustomerController(customerService);
         BookingController bookingController = new BookingController(bookingService);
+        TravelPackageController packageController = new TravelPackageController(packageService);
 
         // Demo Customer CRUD with duplicate check
         Customer candidate = new Customer(0, "Test User", "test@email.com", "123456", "PASS123");
@@ -35,48 +54,61 @@ public class Main {
         FlightBooking flight = new FlightBooking(0, LocalDate.now().plusDays(10), 500, BookingStatus.PENDING, candidate.getId(), "FL123", "NYC", "LAX", SeatClass.ECONOMY);
         bookingController.createBooking(flight);
 
-        List<Booking> bookings = bookingController.getAllBookings();
-        bookings.forEach(b -> System.out.println(b.getBookingType() + ": " + b.getBookingDetails()));  // Polymorphism
+        // Keyset pagination: each page costs one bounded query
+        PageRequest request = PageRequest.first(50);
+        Page<Booking> page;
+        do {
+            page = bookingController.getBookingsPage(request);
+            page.getItems().forEach(b -> LOG.info("booking.listed")
+                    .with("bookingId", b.getId())
+                    .with("type", b.getBookingType())
+                    .with("details", b.getBookingDetails())  // Polymorphism
+                    .publish());
+            request = request.next(page);
+        } while (page.hasNext());
 
         // Lambda sorting
         List<Booking> sorted = bookingController.getSortedBookingsByPrice();
-        System.out.println("Sorted Bookings:");
-        for (Booking b : sorted) {
-            System.out.println(" - " + b);
+        for (int i = 0; i < sorted.size(); i++) {
+            Booking b = sorted.get(i);
+            LOG.info("booking.sorted").with("rank", i + 1).with("bookingId", b.getId())
+                    .with("price", b.getTotalPrice()).publish();
         }
 
         // Interface default/static
         Validatable.printValidationMessage(flight);  // Static
-        System.out.println("Is valid: " + flight.isValid());  // Default
+        LOG.info("booking.validated").with("bookingId", flight.getId()).with("valid", flight.isValid()).publish();  // Default
 
         // Reflection
         ReflectionUtils.inspect(flight);
 
         // Composition
-        TravelPackage pkg = new TravelPackage(1, "Test Package", candidate.getId(), 5.0);
+        TravelPackage pkg = new TravelPackage(0, "Test Package", candidate.getId(), 5.0);
         pkg.addBooking(flight);
-        System.out.println(pkg.getPackageSummary());
+        packageController.createPackage(pkg);
+        String summary = pkg.getPackageSummary();
+        PackageSummary stored = packageController.getPackageSummary(pkg.getId());  // Totals from v_packages_summary
+        LOG.info("package.created").with("packageId", pkg.getId()).with("summary", summary).publish();
+        LOG.info("package.summary").with("packageId", pkg.getId()).with("summary", stored).publish();
 
         // Exceptions (trigger in service)
         try {
             bookingController.deleteBooking(flight.getId());  // If confirmed, throws InvalidInputException
         } catch (InvalidInputException e) {
-            System.out.println("Exception: " + e.getMessage());
+            LOG.warn("booking.delete_rejected").with("bookingId", flight.getId())
+                    .with("error", e.getMessage()).publish();
         }
     }
 
     private static void ensureCustomerExists(CustomerController controller, Customer candidate) {
-        List<Customer> existing = controller.getAllCustomers();
-        Optional<Customer> found = existing.stream()
-                .filter(c -> c.getEmail().equalsIgnoreCase(candidate.getEmail()))
-                .findFirst();
+        Optional<Customer> found = controller.findCustomerByEmail(candidate.getEmail());
         if (found.isPresent()) {
             Customer e = found.get();
             candidate.setId(e.getId());
-            System.out.println("Customer already exists: " + e);
+            LOG.info("customer.exists").with("customerId", e.getId()).with("email", e.getEmail()).publish();
         } else {
             controller.createCustomer(candidate);
-            System.out.println("Customer created successfully: " + candidate);
+            LOG.info("customer.created").with("customerId", candidate.getId()).with("email", candidate.getEmail()).publish();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package api;
+
+import com.sun.net.httpserver.HttpServer;
+import controller.BookingController;
+import controller.CustomerController;
+import controller.ReportController;
+import logging.EventLog;
+import metrics.MetricsRegistry;
+import repository.BookingRepository;
+import repository.CachingBookingRepository;
+import repository.CachingCustomerRepository;
+import repository.CustomerRepository;
+import repository.InMemoryBookingRepository;
+import repository.InMemoryCustomerRepository;
+import repository.MeteredBookingRepository;
+import repository.MeteredCustomerRepository;
+import repository.ReportRepository;
+import repository.WriteBehindBookingRepository;
+import service.BookingService;
+import service.CustomerService;
+import service.ReportService;
+import utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded JSON-over-HTTP API for the booking, customer and report controllers, plus
+ * {@code GET /metrics} in the Prometheus text format.
+ * <p>
+ * Each exchange runs on its own virtual thread, so a request blocked on JDBC parks
+ * instead of holding a platform thread; the connection pool bounds actual database
+ * concurrency. Responses always carry a Content-Length, which lets the JDK server keep
+ * HTTP/1.1 connections alive between requests.
+ * <p>
+ * Start with {@code java -Dapi.port=8080 api.ApiServer} (or pass the port as the first argument);
+ * {@code -Dapi.store=memory} serves from the in-memory repositories instead of PostgreSQL, and
+ * {@code -Dbookings.journal=<file>} turns on write-behind booking intake through that journal.
+ */
+public class ApiServer {
+    public static final int DEFAULT_PORT = 8080;
+
+    static {
+        // The JDK server leaves Nagle on by default; with delayed ACKs on the client that
+        // adds ~40ms to every keep-alive response. Read once when the server classes load.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ApiServer(int port, BookingController bookingController, CustomerController customerController) throws IOException {
+        this(port, bookingController, customerController, null);
+    }
+
+    /**
+     * @param reportController serves {@code /reports}; null leaves the reports out
+     */
+    public ApiServer(int port, BookingController bookingController, CustomerController customerController,
+                     ReportController reportController) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.createContext("/bookings", new BookingHandler(bookingController));
+        server.createContext("/customers", new CustomerHandler(customerController));
+        if (reportController != null) {
+            server.createContext("/reports", new ReportHandler(reportController));
+        }
+        server.createContext("/metrics", new MetricsHandler(MetricsRegistry.getDefault()));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, gives in-flight exchanges up to {@code delaySeconds} to finish,
+     * then shuts the handler executor down.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("api.port", DEFAULT_PORT);
+        boolean inMemory = "memory".equals(System.getProperty("api.store"));
+        if (!inMemory && !DatabaseConnection.testConnection()) {
+            System.err.println("Database connection failed.");
+            return;
+        }
+
+        MetricsRegistry.getDefault().enableJmx("travelbooking");
+
+        // Metering sits outside the caches, so the timings are what the services see
+        CustomerService customerService = new CustomerService(new MeteredCustomerRepository(inMemory
+                ? new InMemoryCustomerRepository()
+                : new CachingCustomerRepository(new CustomerRepository(), 10_000, 300_000)));
+        String journal = System.getProperty("bookings.journal");
+        WriteBehindBookingRepository writeBehind = journal == null ? null
+                : new WriteBehindBookingRepository(inMemory ? new InMemoryBookingRepository() : new BookingRepository(), Paths.get(journal));
+        BookingService bookingService = new BookingService(new MeteredBookingRepository(writeBehind != null
+                ? new CachingBookingRepository(writeBehind, 10_000, 300_000)
+                : inMemory
+                ? new InMemoryBookingRepository()
+                : new CachingBookingRepository(new BookingRepository(), 10_000, 300_000)));
+
+        // Reports are SQL aggregates, so the in-memory store has none
+        ReportController reportController = inMemory ? null : new ReportController(new ReportService(new ReportRepository()));
+
+        ApiServer api = new ApiServer(port, new BookingController(bookingService), new CustomerController(customerService), reportController);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop(1);
+            if (writeBehind != null) {
+                writeBehind.close();
+            }
+            DatabaseConnection.shutdown();
+        }));
+        api.start();
+        EventLog.getDefault().info("api.started").with("port", api.getPort()).publish();
+    }
+}
@@ -0,0 +1,148 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import controller.BookingController;
+import exception.InvalidInputException;
+import model.*;
+import utils.JsonEncoder;
+import utils.JsonParser;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * GET    /bookings?after=&amp;size=&amp;total=                    page of bookings
+ * GET    /bookings/top?limit=&amp;order=asc|desc&amp;status=&amp;type=
+ * GET    /bookings/{id}
+ * POST   /bookings                                      create (body carries "type")
+ * POST   /bookings/batch                                bulk create from a JSON array
+ * PUT    /bookings/{id}
+ * DELETE /bookings/{id}
+ * POST   /bookings/{id}/confirm
+ * POST   /bookings/{id}/cancel
+ * </pre>
+ */
+class BookingHandler extends JsonHandler {
+    private final BookingController controller;
+
+    BookingHandler(BookingController controller) {
+        super("/bookings");
+        this.controller = controller;
+    }
+
+    @Override
+    Response route(String method, String[] segments, Map<String, String> query, HttpExchange exchange) {
+        if (segments.length == 0) {
+            if (method.equals("GET")) {
+                return ok(page(controller.getBookingsPage(pageRequest(query)), JsonEncoder::booking));
+            }
+            if (method.equals("POST")) {
+                Booking booking = toBooking(JsonParser.parseObject(readBody(exchange)));
+                controller.createBooking(booking);
+                // Write-behind intake journals the booking; the database assigns its id later
+                return booking.getId() == 0
+                        ? new Response(202, JsonEncoder.booking(new StringBuilder(), booking).toString())
+                        : created(JsonEncoder.booking(new StringBuilder(), booking));
+            }
+            return null;
+        }
+        if (segments.length == 1 && segments[0].equals("top") && method.equals("GET")) {
+            String status = query.get("status");
+            boolean descending = !"asc".equalsIgnoreCase(query.get("order"));
+            List<Booking> top = controller.getTopBookingsByPrice(
+                    intParam(query, "limit", 10),
+                    descending,
+                    status == null ? null : enumValue(BookingStatus.class, status, "status"),
+                    query.get("type"));
+            return ok(list(top, JsonEncoder::booking));
+        }
+        if (segments.length == 1 && segments[0].equals("batch") && method.equals("POST")) {
+            Object parsed = JsonParser.parse(readBody(exchange));
+            if (!(parsed instanceof List)) {
+                throw new InvalidInputException("Expected a JSON array of bookings");
+            }
+            List<Booking> bookings = new ArrayList<>();
+            for (Object item : (List<?>) parsed) {
+                bookings.add(toBooking(CustomerHandler.asObject(item)));
+            }
+            return ok(batch(controller.createBookings(bookings), JsonEncoder::booking));
+        }
+        if (segments.length == 1) {
+            int id = parseId(segments[0]);
+            switch (method) {
+                case "GET":
+                    return ok(JsonEncoder.booking(new StringBuilder(), controller.getBookingById(id)));
+                case "PUT":
+                    Booking booking = toBooking(JsonParser.parseObject(readBody(exchange)));
+                    controller.updateBooking(id, booking);
+                    booking.setId(id);
+                    return ok(JsonEncoder.booking(new StringBuilder(), booking));
+                case "DELETE":
+                    controller.deleteBooking(id);
+                    return NO_CONTENT;
+                default:
+                    return null;
+            }
+        }
+        if (segments.length == 2 && method.equals("POST")) {
+            int id = parseId(segments[0]);
+            if (segments[1].equals("confirm")) {
+                controller.confirmBooking(id);
+                return ok(JsonEncoder.booking(new StringBuilder(), controller.getBookingById(id)));
+            }
+            if (segments[1].equals("cancel")) {
+                controller.cancelBooking(id);
+                return ok(JsonEncoder.booking(new StringBuilder(), controller.getBookingById(id)));
+            }
+        }
+        return null;
+    }
+
+    private static Booking toBooking(Map<String, Object> json) {
+        String type = CustomerHandler.text(json, "type");
+        LocalDate date;
+        try {
+            date = LocalDate.parse(required(json, "bookingDate"));
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputException("bookingDate must be an ISO date (yyyy-MM-dd)");
+        }
+        double price = number(json, "totalPrice").doubleValue();
+        String statusText = CustomerHandler.text(json, "status");
+        BookingStatus status = statusText == null ? BookingStatus.PENDING : enumValue(BookingStatus.class, statusText, "status");
+        int customerId = number(json, "customerId").intValue();
+
+        if ("FLIGHT".equals(type)) {
+            return new FlightBooking(0, date, price, status, customerId,
+                    CustomerHandler.text(json, "flightNumber"), CustomerHandler.text(json, "origin"),
+                    CustomerHandler.text(json, "destination"),
+                    enumValue(SeatClass.class, required(json, "seatClass"), "seatClass"));
+        }
+        if ("HOTEL".equals(type)) {
+            return new HotelBooking(0, date, price, status, customerId,
+                    CustomerHandler.text(json, "hotelName"),
+                    enumValue(RoomType.class, required(json, "roomType"), "roomType"),
+                    number(json, "nights").intValue());
+        }
+        throw new InvalidInputException("Booking type must be FLIGHT or HOTEL");
+    }
+
+    private static String required(Map<String, Object> json, String field) {
+        String value = CustomerHandler.text(json, field);
+        if (value == null) {
+            throw new InvalidInputException("Missing field: " + field);
+        }
+        return value;
+    }
+
+    private static Number number(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        if (!(value instanceof Number)) {
+            throw new InvalidInputException("Field '" + field + "' must be a number");
+        }
+        return (Number) value;
+    }
+}
@@ -0,0 +1,99 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import controller.CustomerController;
+import exception.InvalidInputException;
+import model.Customer;
+import utils.JsonEncoder;
+import utils.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <pre>
+ * GET    /customers?after=&amp;size=&amp;total=   page of customers
+ * GET    /customers?email=              lookup by email
+ * GET    /customers/{id}
+ * POST   /customers                     create
+ * POST   /customers/batch               bulk create from a JSON array
+ * PUT    /customers/{id}
+ * DELETE /customers/{id}
+ * </pre>
+ */
+class CustomerHandler extends JsonHandler {
+    private final CustomerController controller;
+
+    CustomerHandler(CustomerController controller) {
+        super("/customers");
+        this.controller = controller;
+    }
+
+    @Override
+    Response route(String method, String[] segments, Map<String, String> query, HttpExchange exchange) {
+        if (segments.length == 0) {
+            if (method.equals("GET")) {
+                String email = query.get("email");
+                if (email != null) {
+                    Optional<Customer> found = controller.findCustomerByEmail(email);
+                    return found.map(c -> ok(JsonEncoder.customer(new StringBuilder(), c)))
+                            .orElseGet(() -> error(404, "Customer with email " + email + " not found"));
+                }
+                return ok(page(controller.getCustomersPage(pageRequest(query)), JsonEncoder::customer));
+            }
+            if (method.equals("POST")) {
+                Customer customer = toCustomer(JsonParser.parseObject(readBody(exchange)));
+                controller.createCustomer(customer);
+                return created(JsonEncoder.customer(new StringBuilder(), customer));
+            }
+            return null;
+        }
+        if (segments.length == 1 && segments[0].equals("batch") && method.equals("POST")) {
+            Object parsed = JsonParser.parse(readBody(exchange));
+            if (!(parsed instanceof List)) {
+                throw new InvalidInputException("Expected a JSON array of customers");
+            }
+            List<Customer> customers = new ArrayList<>();
+            for (Object item : (List<?>) parsed) {
+                customers.add(toCustomer(asObject(item)));
+            }
+            return ok(batch(controller.createCustomers(customers), JsonEncoder::customer));
+        }
+        if (segments.length == 1) {
+            int id = parseId(segments[0]);
+            switch (method) {
+                case "GET":
+                    return ok(JsonEncoder.customer(new StringBuilder(), controller.getCustomerById(id)));
+                case "PUT":
+                    Customer customer = toCustomer(JsonParser.parseObject(readBody(exchange)));
+                    controller.updateCustomer(id, customer);
+                    return ok(JsonEncoder.customer(new StringBuilder(), customer));
+                case "DELETE":
+                    controller.deleteCustomer(id);
+                    return NO_CONTENT;
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> asObject(Object item) {
+        if (!(item instanceof Map)) {
+            throw new InvalidInputException("Expected a JSON object");
+        }
+        return (Map<String, Object>) item;
+    }
+
+    private static Customer toCustomer(Map<String, Object> json) {
+        return new Customer(0, text(json, "name"), text(json, "email"), text(json, "phone"), text(json, "passportNumber"));
+    }
+
+    static String text(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import exception.DatabaseOperationException;
+import exception.DuplicateResourceException;
+import exception.InvalidInputException;
+import exception.ResourceNotFoundException;
+import exception.StatusConflictException;
+import logging.EventLog;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import utils.DatabaseConnection;
+import utils.JsonEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Base class for the JSON endpoints: splits the path, maps service exceptions to HTTP
+ * status codes and writes fixed-length responses so connections can be kept alive.
+ * Request bodies over {@code -Dapi.maxBodyBytes} (1 MiB by default) are answered with 413.
+ */
+abstract class JsonHandler implements HttpHandler {
+    static final int MAX_BODY_BYTES = Integer.getInteger("api.maxBodyBytes", 1 << 20);
+
+    static final class PayloadTooLargeException extends RuntimeException {
+        PayloadTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    static final Response NO_CONTENT = new Response(204, null);
+
+    private final String basePath;
+
+    JsonHandler(String basePath) {
+        this.basePath = basePath;
+    }
+
+    /**
+     * @param segments path segments after the base path, e.g. ["42", "confirm"]
+     */
+    abstract Response route(String method, String[] segments, Map<String, String> query, HttpExchange exchange);
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Response response;
+        try {
+            String rest = exchange.getRequestURI().getPath().substring(basePath.length());
+            String[] segments = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.substring(1).split("/");
+            response = route(exchange.getRequestMethod(), segments, parseQuery(exchange.getRequestURI().getRawQuery()), exchange);
+            if (response == null) {
+                response = error(404, "No route for " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+            }
+        } catch (ResourceNotFoundException e) {
+            response = error(404, e.getMessage());
+        } catch (DuplicateResourceException | StatusConflictException e) {
+            response = error(409, e.getMessage());
+        } catch (InvalidInputException | IllegalArgumentException | IllegalStateException e) {
+            response = error(400, e.getMessage());
+        } catch (PayloadTooLargeException e) {
+            response = error(413, e.getMessage());
+        } catch (DatabaseOperationException e) {
+            response = error(databaseStatus(e), databaseMessage(e));
+        } catch (RuntimeException e) {
+            response = error(500, e.getMessage());
+        } catch (Error e) {
+            // Still answer, or the client waits on the exchange until it times out
+            response = error(500, e.getClass().getSimpleName());
+        }
+        send(exchange, response);
+    }
+
+    static Response ok(CharSequence json) {
+        return new Response(200, json.toString());
+    }
+
+    static Response created(CharSequence json) {
+        return new Response(201, json.toString());
+    }
+
+    static Response error(int status, String message) {
+        StringBuilder sb = new StringBuilder("{\"status\":").append(status);
+        JsonEncoder.field(sb, "error", message);
+        return new Response(status, sb.append('}').toString());
+    }
+
+    /**
+     * 503 only when the database could not be reached, so clients know a retry may help; any
+     * other database failure is a 500. The driver's message is logged, not sent to the client.
+     */
+    static int databaseStatus(DatabaseOperationException e) {
+        return DatabaseConnection.isConnectionFailure(e) ? 503 : 500;
+    }
+
+    static String databaseMessage(DatabaseOperationException e) {
+        EventLog.getDefault().warn("http.database_error")
+                .with("error", e.getMessage())
+                .publish();
+        return databaseStatus(e) == 503 ? "Database unavailable" : "Database operation failed";
+    }
+
+    static <T> StringBuilder list(List<T> items, BiConsumer<StringBuilder, T> encoder) {
+        StringBuilder sb = new StringBuilder(64 + items.size() * 160).append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            encoder.accept(sb, items.get(i));
+        }
+        return sb.append(']');
+    }
+
+    static <T> StringBuilder page(Page<T> page, BiConsumer<StringBuilder, T> encoder) {
+        StringBuilder sb = new StringBuilder("{\"items\":").append(list(page.getItems(), encoder));
+        sb.append(",\"nextCursor\":").append(page.getNextCursor())
+                .append(",\"hasNext\":").append(page.hasNext());
+        if (page.getTotalCount() != Page.UNKNOWN_TOTAL) {
+            sb.append(",\"total\":").append(page.getTotalCount());
+        }
+        return sb.append('}');
+    }
+
+    static <T> StringBuilder batch(BatchResult<T> result, BiConsumer<StringBuilder, T> encoder) {
+        StringBuilder sb = new StringBuilder("{\"created\":").append(list(result.getCreated(), encoder));
+        sb.append(",\"failures\":[");
+        boolean first = true;
+        for (Map.Entry<Integer, RuntimeException> failure : result.getFailures().entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"index\":").append(failure.getKey());
+            RuntimeException e = failure.getValue();
+            JsonEncoder.field(sb, "error", e instanceof DatabaseOperationException
+                    ? databaseMessage((DatabaseOperationException) e) : e.getMessage());
+            sb.append('}');
+        }
+        return sb.append("]}");
+    }
+
+    static PageRequest pageRequest(Map<String, String> query) {
+        int after = intParam(query, "after", 0);
+        int size = intParam(query, "size", 50);
+        boolean total = Boolean.parseBoolean(query.getOrDefault("total", "false"));
+        return new PageRequest(after, size, total);
+    }
+
+    static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Parameter '" + name + "' must be an integer");
+        }
+    }
+
+    /**
+     * Optional ISO date (yyyy-MM-dd) query parameter; null when absent.
+     */
+    static LocalDate dateParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputException("Parameter '" + name + "' must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+
+    static <E extends Enum<E>> E enumValue(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid " + field + ": " + value);
+        }
+    }
+
+    static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid id: " + segment);
+        }
+    }
+
+    static String readBody(HttpExchange exchange) {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && parseLength(length) > MAX_BODY_BYTES) {
+            throw tooLarge();
+        }
+        // Chunked bodies carry no length, so read at most one byte past the limit
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw tooLarge();
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new InvalidInputException("Could not read request body", e);
+        }
+    }
+
+    private static long parseLength(String header) {
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid Content-Length: " + header);
+        }
+    }
+
+    private static PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body == null) {
+            exchange.sendResponseHeaders(response.status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for {@link ApiServer}: a fixed number of virtual-thread
+ * workers each issue GET requests back to back over a shared keep-alive HTTP/1.1 client.
+ * <p>
+ * Usage: {@code java api.LoadGenerator <base-url> [concurrency] [seconds] [path...]}, e.g.
+ * <pre>java api.LoadGenerator http://localhost:8080 64 30 /bookings/1 /customers?size=20</pre>
+ * Reports throughput and p50/p99/max latency once warm-up (the first 20% of the run) is over.
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadGenerator <base-url> [concurrency] [seconds] [path...]");
+            return;
+        }
+        String baseUrl = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        String[] paths = args.length > 3 ? Arrays.copyOfRange(args, 3, args.length) : new String[] {"/bookings?size=20"};
+
+        HttpRequest[] requests = new HttpRequest[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create(baseUrl + paths[i])).timeout(Duration.ofSeconds(10)).GET().build();
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(seconds).toNanos() / 5;
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+        LongAdder errors = new LongAdder();
+
+        List<Future<long[]>> workers = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int offset = w;
+                workers.add(pool.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    for (int i = offset; System.nanoTime() < end; i++) {
+                        long t0 = System.nanoTime();
+                        boolean failed;
+                        try {
+                            HttpResponse<Void> response = client.send(requests[i % requests.length], HttpResponse.BodyHandlers.discarding());
+                            failed = response.statusCode() >= 500;
+                        } catch (IOException e) {
+                            failed = true;
+                        }
+                        long t1 = System.nanoTime();
+                        if (t0 >= measureFrom) {
+                            if (failed) {
+                                errors.increment();
+                            }
+                            if (count == latencies.length) {
+                                latencies = Arrays.copyOf(latencies, count * 2);
+                            }
+                            latencies[count++] = t1 - t0;
+                        }
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long total = 0;
+        for (Future<long[]> worker : workers) {
+            total += worker.get().length;
+        }
+        long[] all = new long[(int) total];
+        int pos = 0;
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            System.arraycopy(latencies, 0, all, pos, latencies.length);
+            pos += latencies.length;
+        }
+        Arrays.sort(all);
+
+        double measuredSeconds = (end - measureFrom) / 1e9;
+        System.out.printf("requests: %d  errors: %d  throughput: %.0f req/s%n", all.length, errors.sum(), all.length / measuredSeconds);
+        if (all.length > 0) {
+            System.out.printf("latency ms  p50: %.2f  p99: %.2f  max: %.2f%n",
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,64 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import controller.ReportController;
+import exception.InvalidInputException;
+import model.BookingStatus;
+import utils.JsonEncoder;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * <pre>
+ * GET /reports/revenue?by=status|type|day&amp;from=&amp;to=&amp;status=   revenue and booking count per group
+ * GET /reports/customers?limit=                             customers with the most bookings
+ * GET /reports/routes?limit=&amp;status=                        flight routes with the most bookings
+ * GET /reports/hotels?from=&amp;to=&amp;status=                    booked nights per hotel
+ * </pre>
+ * Dates are inclusive ISO booking dates; omitted filters match everything.
+ */
+class ReportHandler extends JsonHandler {
+    private final ReportController controller;
+
+    ReportHandler(ReportController controller) {
+        super("/reports");
+        this.controller = controller;
+    }
+
+    @Override
+    Response route(String method, String[] segments, Map<String, String> query, HttpExchange exchange) {
+        if (segments.length != 1 || !method.equals("GET")) {
+            return null;
+        }
+        LocalDate from = dateParam(query, "from");
+        LocalDate to = dateParam(query, "to");
+        String statusText = query.get("status");
+        BookingStatus status = statusText == null ? null : enumValue(BookingStatus.class, statusText, "status");
+        switch (segments[0]) {
+            case "revenue":
+                String by = query.getOrDefault("by", "status");
+                switch (by) {
+                    case "status":
+                        if (status != null) {
+                            throw new InvalidInputException("Revenue by status cannot be filtered by status");
+                        }
+                        return ok(list(controller.getRevenueByStatus(from, to), JsonEncoder::revenue));
+                    case "type":
+                        return ok(list(controller.getRevenueByType(from, to, status), JsonEncoder::revenue));
+                    case "day":
+                        return ok(list(controller.getRevenueByDay(from, to, status), JsonEncoder::revenue));
+                    default:
+                        throw new InvalidInputException("Parameter 'by' must be status, type or day");
+                }
+            case "customers":
+                return ok(list(controller.getTopCustomers(intParam(query, "limit", 10)), JsonEncoder::customerActivity));
+            case "routes":
+                return ok(list(controller.getTopRoutes(intParam(query, "limit", 10), status), JsonEncoder::route));
+            case "hotels":
+                return ok(list(controller.getHotelOccupancy(from, to, status), JsonEncoder::hotelOccupancy));
+            default:
+                return null;
+        }
+    }
+}
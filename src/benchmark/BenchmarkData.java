@@ -0,0 +1,50 @@
+package benchmark;
+
+import model.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures: every generator takes a seeded {@link Random} so runs are comparable.
+ */
+final class BenchmarkData {
+    static final long SEED = 42L;
+
+    private static final String[] CITIES = {"New York", "Tokyo", "London", "Dubai", "Paris", "Almaty", "Sydney"};
+    private static final String[] HOTELS = {"Grand Hyatt Tokyo", "Le Grand Paris Hotel", "London City Inn", "Rixos Almaty"};
+
+    private BenchmarkData() {}
+
+    static Booking booking(Random random, int customerId) {
+        LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(365));
+        double price = 50 + random.nextInt(500_000) / 100.0;
+        BookingStatus status = BookingStatus.values()[random.nextInt(3)];
+        if (random.nextBoolean()) {
+            int from = random.nextInt(CITIES.length);
+            int to = (from + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length;
+            return new FlightBooking(0, date, price, status, customerId,
+                    "FL" + (100 + random.nextInt(900)), CITIES[from], CITIES[to],
+                    SeatClass.values()[random.nextInt(SeatClass.values().length)]);
+        }
+        return new HotelBooking(0, date, price, status, customerId,
+                HOTELS[random.nextInt(HOTELS.length)],
+                RoomType.values()[random.nextInt(RoomType.values().length)], 1 + random.nextInt(14));
+    }
+
+    static List<Booking> bookings(Random random, int count, int customerId) {
+        List<Booking> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Booking booking = booking(random, customerId);
+            booking.setId(i + 1);
+            list.add(booking);
+        }
+        return list;
+    }
+
+    static Customer customer(int n) {
+        return new Customer(0, "Bench Customer " + n, "bench" + n + "@example.com", "+1-555-" + n, "BP" + n);
+    }
+}
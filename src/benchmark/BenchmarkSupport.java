@@ -0,0 +1,61 @@
+package benchmark;
+
+import utils.ConnectionPool;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.LongAdder;
+
+final class BenchmarkSupport {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Wraps a factory so that every statement execution on the connections it produces
+     * is counted as one database round-trip.
+     */
+    static ConnectionPool.ConnectionFactory countingRoundTrips(ConnectionPool.ConnectionFactory delegate,
+                                                               LongAdder roundTrips) {
+        return () -> {
+            Connection conn = delegate.create();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(conn, method, args);
+                        if (result instanceof PreparedStatement) {
+                            return countingStatement((PreparedStatement) result, roundTrips);
+                        }
+                        return result;
+                    });
+        };
+    }
+
+    static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static PreparedStatement countingStatement(PreparedStatement ps, LongAdder roundTrips) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        roundTrips.increment();
+                    }
+                    return invoke(ps, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
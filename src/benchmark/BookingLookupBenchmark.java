@@ -0,0 +1,112 @@
+package benchmark;
+
+import exception.ResourceNotFoundException;
+import model.*;
+import repository.BookingRepository;
+import utils.ConnectionPool;
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the former two-query getById (flight query, then hotel query on a miss)
+ * with the single LEFT JOIN lookup in BookingRepository.
+ * <p>
+ * Run against a database loaded with resources/schema.sql:
+ * <pre>java -cp bin:lib/postgresql.jar benchmark.BookingLookupBenchmark [iterations]</pre>
+ */
+public class BookingLookupBenchmark {
+
+    private static final String LEGACY_FLIGHT_SQL = "SELECT b.*, fb.flight_number, fb.origin, fb.destination, fb.seat_class FROM bookings b JOIN flight_bookings fb ON b.id = fb.booking_id WHERE b.id = ?";
+    private static final String LEGACY_HOTEL_SQL = "SELECT b.*, hb.hotel_name, hb.room_type, hb.nights FROM bookings b JOIN hotel_bookings hb ON b.id = hb.booking_id WHERE b.id = ?";
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+
+        LongAdder roundTrips = new LongAdder();
+        DatabaseConnection.configure(new ConnectionPool(
+                BenchmarkSupport.countingRoundTrips(DatabaseConnection::openUnpooledConnection, roundTrips),
+                1, 1, 5_000, 0, 0));
+
+        BookingRepository repository = new BookingRepository();
+        List<Integer> flightIds = new ArrayList<>();
+        List<Integer> hotelIds = new ArrayList<>();
+        for (Booking b : repository.getAll()) {
+            (b instanceof FlightBooking ? flightIds : hotelIds).add(b.getId());
+        }
+        if (flightIds.isEmpty() || hotelIds.isEmpty()) {
+            System.err.println("Need at least one flight and one hotel booking in the database");
+            return;
+        }
+
+        System.out.printf("%-22s %14s %14s %12s%n", "lookup", "round-trips/op", "bytes/op", "us/op");
+        for (String kind : new String[]{"flight", "hotel"}) {
+            List<Integer> ids = kind.equals("flight") ? flightIds : hotelIds;
+
+            measure("legacy " + kind, iterations, ids, roundTrips, BookingLookupBenchmark::legacyGetById);
+            measure("single-query " + kind, iterations, ids, roundTrips, repository::getById);
+        }
+        DatabaseConnection.shutdown();
+    }
+
+    private interface Lookup {
+        Booking get(int id) throws Exception;
+    }
+
+    private static void measure(String label, int iterations, List<Integer> ids, LongAdder roundTrips,
+                                Lookup lookup) throws Exception {
+        for (int i = 0; i < iterations / 4; i++) {
+            lookup.get(ids.get(i % ids.size()));
+        }
+
+        roundTrips.reset();
+        long bytesBefore = BenchmarkSupport.allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            lookup.get(ids.get(i % ids.size()));
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = BenchmarkSupport.allocatedBytes() - bytesBefore;
+
+        System.out.printf("%-22s %14.2f %14d %12.1f%n", label,
+                roundTrips.sum() / (double) iterations, bytes / iterations, elapsed / 1_000.0 / iterations);
+    }
+
+    // Reproduces the previous repository behaviour: a flight lookup, and on a miss an
+    // exception followed by a second round-trip for the hotel.
+    private static Booking legacyGetById(int id) throws SQLException {
+        try {
+            return legacyQuery(LEGACY_FLIGHT_SQL, id, true);
+        } catch (ResourceNotFoundException e) {
+            return legacyQuery(LEGACY_HOTEL_SQL, id, false);
+        }
+    }
+
+    private static Booking legacyQuery(String sql, int id, boolean flight) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ResourceNotFoundException(flight ? "FlightBooking" : "HotelBooking", id);
+                }
+                if (flight) {
+                    return new FlightBooking(rs.getInt("id"), rs.getDate("booking_date").toLocalDate(),
+                            rs.getDouble("total_price"), BookingStatus.valueOf(rs.getString("status")),
+                            rs.getInt("customer_id"), rs.getString("flight_number"), rs.getString("origin"),
+                            rs.getString("destination"), SeatClass.valueOf(rs.getString("seat_class")));
+                }
+                return new HotelBooking(rs.getInt("id"), rs.getDate("booking_date").toLocalDate(),
+                        rs.getDouble("total_price"), BookingStatus.valueOf(rs.getString("status")),
+                        rs.getInt("customer_id"), rs.getString("hotel_name"),
+                        RoomType.valueOf(rs.getString("room_type")), rs.getInt("nights"));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package benchmark;
+
+import logging.EventLog;
+import logging.Level;
+import model.BookingStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of status-change logging under contention: every thread logs the same
+ * "booking confirmed" event as fast as it can, first through a shared PrintStream set up like
+ * System.out (the former println in Booking.confirm), then through {@link EventLog} with each
+ * overflow policy. Output is discarded in all cases, so the numbers show the cost on the
+ * calling threads rather than the console's speed.
+ * <p>
+ * Reports events/s and allocated bytes per event on the logging threads, and for the event log
+ * how many events were dropped and how long the writer took to catch up after the last call.
+ * <pre>java -cp bin benchmark.EventLogBenchmark [-threads 1,4,16] [-events 200000] [-capacity 8192]</pre>
+ */
+public class EventLogBenchmark {
+
+    private interface Emitter {
+        void emit(int bookingId);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] threadCounts = {1, 4, 16};
+        int events = 200_000;
+        int capacity = EventLog.DEFAULT_CAPACITY;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads":
+                    String[] parts = args[++i].split(",");
+                    threadCounts = new int[parts.length];
+                    for (int p = 0; p < parts.length; p++) {
+                        threadCounts[p] = Integer.parseInt(parts[p].trim());
+                    }
+                    break;
+                case "-events":
+                    events = Integer.parseInt(args[++i]);
+                    break;
+                case "-capacity":
+                    capacity = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        System.out.printf("%-16s %8s %14s %10s %12s %10s%n", "logger", "threads", "events/s", "bytes/op", "dropped", "drain ms");
+        for (int threads : threadCounts) {
+            // Same setup as System.out: small buffer, flushed on every println
+            PrintStream console = new PrintStream(new BufferedOutputStream(OutputStream.nullOutputStream(), 128), true);
+            run("println", threads, events, null, id -> console.println("Booking #" + id + " confirmed successfully"));
+
+            for (EventLog.Overflow overflow : EventLog.Overflow.values()) {
+                EventLog log = EventLog.create(new BufferedWriter(Writer.nullWriter()), capacity, overflow, Level.INFO);
+                run("eventlog " + overflow.name().toLowerCase(), threads, events, log, id -> log.info("booking.status_changed")
+                        .with("bookingId", id)
+                        .with("from", BookingStatus.PENDING)
+                        .with("status", BookingStatus.CONFIRMED)
+                        .publish());
+            }
+        }
+    }
+
+    private static void run(String label, int threads, int events, EventLog log, Emitter emitter) throws Exception {
+        // Warm up on a single thread so that the timed run measures compiled code
+        for (int i = 0; i < Math.min(events, 50_000); i++) {
+            emitter.emit(i);
+        }
+        long droppedBefore = log == null ? 0 : log.getDroppedCount();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> workers = new ArrayList<>();
+        long begin;
+        try {
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    long bytesBefore = BenchmarkSupport.allocatedBytes();
+                    for (int i = 0; i < events; i++) {
+                        emitter.emit(i);
+                    }
+                    return BenchmarkSupport.allocatedBytes() - bytesBefore;
+                }));
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        } finally {
+            pool.shutdown();
+        }
+
+        long bytes = 0;
+        for (Future<Long> worker : workers) {
+            bytes += worker.get();
+        }
+        long end = System.nanoTime();
+        long drainMillis = 0;
+        long dropped = 0;
+        if (log != null) {
+            log.close();
+            drainMillis = (System.nanoTime() - end) / 1_000_000;
+            dropped = log.getDroppedCount() - droppedBefore;
+        }
+
+        long total = (long) threads * events;
+        double seconds = (end - begin) / 1e9;
+        System.out.printf("%-16s %8d %,14.0f %10d %,12d %10s%n", label, threads, total / seconds, bytes / total,
+                dropped, log == null ? "-" : Long.toString(drainMillis));
+    }
+}
@@ -0,0 +1,191 @@
+package benchmark;
+
+import exception.StatusConflictException;
+import logging.EventLog;
+import logging.Level;
+import model.Booking;
+import model.BookingStatus;
+import repository.BookingRepository;
+import repository.InMemoryBookingRepository;
+import repository.interfaces.BookingRepositoryInterface;
+import service.BookingService;
+import utils.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Races confirm and cancel calls on the same bookings from many threads and checks the
+ * outcome: a booking can be cancelled successfully at most once, and nothing succeeds on it
+ * after that. Runs the same workload through the former read-modify-write path
+ * (getById, Booking.cancel/confirm, update) to show the lost updates it allows.
+ * <p>
+ * Exits with an exception if the conditional-update path breaks either rule, so the run can
+ * gate a build.
+ * <p>
+ * <pre>java -cp bin benchmark.StatusTransitionStress [-target memory|jdbc] [-bookings 200] [-threads 32] [-rounds 20]</pre>
+ */
+public class StatusTransitionStress {
+
+    public static void main(String[] args) throws Exception {
+        String target = "memory";
+        int bookingCount = 200;
+        int threads = 32;
+        int rounds = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-target":
+                    target = args[++i];
+                    break;
+                case "-bookings":
+                    bookingCount = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-rounds":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        boolean jdbc = target.equals("jdbc");
+        try {
+            for (boolean atomic : new boolean[] {false, true}) {
+                BookingRepositoryInterface repository = jdbc ? new BookingRepository() : new InMemoryBookingRepository();
+                int violations = run(repository, atomic, bookingCount, threads, rounds);
+                if (atomic && violations > 0) {
+                    throw new IllegalStateException("Conditional update broke the status rules " + violations + " times");
+                }
+            }
+        } finally {
+            if (jdbc) {
+                DatabaseConnection.shutdown();
+            }
+        }
+    }
+
+    /**
+     * @return the number of double cancels, confirms after cancel and cancelled bookings left in another status
+     */
+    private static int run(BookingRepositoryInterface repository, boolean atomic, int bookingCount, int threads, int rounds)
+            throws Exception {
+        List<Booking> bookings = BenchmarkData.bookings(new Random(BenchmarkData.SEED), bookingCount, 1);
+        for (Booking booking : bookings) {
+            booking.setStatus(BookingStatus.PENDING);
+        }
+        repository.createAll(bookings);
+        BookingService service = new BookingService(repository);
+
+        int[] ids = new int[bookingCount];
+        for (int i = 0; i < bookingCount; i++) {
+            ids[i] = bookings.get(i).getId();
+        }
+        AtomicIntegerArray cancels = new AtomicIntegerArray(bookingCount);
+        AtomicIntegerArray confirmsAfterCancel = new AtomicIntegerArray(bookingCount);
+        AtomicIntegerArray cancelled = new AtomicIntegerArray(bookingCount);
+        CountDownLatch start = new CountDownLatch(1);
+
+        long begin;
+        List<Future<int[]>> workers = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // Every successful confirm/cancel logs an event; keep them out of the report
+        EventLog log = EventLog.getDefault();
+        Level level = log.getLevel();
+        log.setLevel(Level.WARN);
+        try {
+            for (int t = 0; t < threads; t++) {
+                long seed = BenchmarkData.SEED + t;
+                workers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    int calls = 0;
+                    int conflicts = 0;
+                    start.await();
+                    for (int round = 0; round < rounds; round++) {
+                        for (int i = 0; i < ids.length; i++) {
+                            boolean cancel = random.nextInt(4) == 0;
+                            // Read before the call: a cancel flagged during it may have come after the confirm
+                            boolean cancelledBefore = cancelled.get(i) == 1;
+                            calls++;
+                            try {
+                                if (atomic) {
+                                    if (cancel) {
+                                        service.cancelBooking(ids[i]);
+                                    } else {
+                                        service.confirmBooking(ids[i]);
+                                    }
+                                } else {
+                                    Booking booking = repository.getById(ids[i]);
+                                    if (cancel) {
+                                        booking.cancel();
+                                    } else {
+                                        booking.confirm();
+                                    }
+                                    repository.update(ids[i], booking);
+                                }
+                                if (cancel) {
+                                    cancels.incrementAndGet(i);
+                                    cancelled.set(i, 1);
+                                } else if (cancelledBefore) {
+                                    confirmsAfterCancel.incrementAndGet(i);
+                                }
+                            } catch (StatusConflictException e) {
+                                conflicts++;
+                            } catch (IllegalStateException e) {
+                                // Booking.confirm/cancel refusing a status it read
+                                conflicts++;
+                            }
+                        }
+                    }
+                    return new int[] {calls, conflicts};
+                }));
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        } finally {
+            pool.shutdown();
+        }
+
+        long calls = 0;
+        long conflicts = 0;
+        try {
+            for (Future<int[]> worker : workers) {
+                int[] counts = worker.get();
+                calls += counts[0];
+                conflicts += counts[1];
+            }
+        } finally {
+            log.setLevel(level);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        int doubleCancels = 0;
+        int lateConfirms = 0;
+        int resurrected = 0;
+        for (int i = 0; i < bookingCount; i++) {
+            if (cancels.get(i) > 1) {
+                doubleCancels++;
+            }
+            lateConfirms += confirmsAfterCancel.get(i);
+            if (cancelled.get(i) == 1 && repository.getById(ids[i]).getStatus() != BookingStatus.CANCELLED) {
+                resurrected++;
+            }
+        }
+        for (int id : ids) {
+            repository.delete(id);
+        }
+
+        System.out.printf("%-22s %,10d calls %8.0f calls/s %,8d conflicts | double cancels %d, confirms after cancel %d, "
+                        + "cancelled bookings not CANCELLED %d%n",
+                atomic ? "conditional update" : "read-modify-write", calls, calls / seconds, conflicts,
+                doubleCancels, lateConfirms, resurrected);
+        return doubleCancels + lateConfirms + resurrected;
+    }
+}
@@ -0,0 +1,63 @@
+package controller;
+
+import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import service.interfaces.AsyncBookingServiceInterface;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncBookingController {
+    private final AsyncBookingServiceInterface bookingService;
+
+    public AsyncBookingController(AsyncBookingServiceInterface bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    public CompletableFuture<Void> createBooking(Booking booking) {
+        return bookingService.createBooking(booking);
+    }
+
+    public CompletableFuture<BatchResult<Booking>> createBookings(List<Booking> bookings) {
+        return bookingService.createBookings(bookings);
+    }
+
+    public CompletableFuture<List<Booking>> getAllBookings() {
+        return bookingService.getAllBookings();
+    }
+
+    public CompletableFuture<Page<Booking>> getBookingsPage(PageRequest request) {
+        return bookingService.getBookingsPage(request);
+    }
+
+    public CompletableFuture<Booking> getBookingById(int id) {
+        return bookingService.getBookingById(id);
+    }
+
+    public CompletableFuture<Void> updateBooking(int id, Booking booking) {
+        return bookingService.updateBooking(id, booking);
+    }
+
+    public CompletableFuture<Void> deleteBooking(int id) {
+        return bookingService.deleteBooking(id);
+    }
+
+    public CompletableFuture<Void> confirmBooking(int id) {
+        return bookingService.confirmBooking(id);
+    }
+
+    public CompletableFuture<Void> cancelBooking(int id) {
+        return bookingService.cancelBooking(id);
+    }
+
+    public CompletableFuture<List<Booking>> getSortedBookingsByPrice() {
+        return bookingService.getSortedBookingsByPrice();
+    }
+
+    public CompletableFuture<List<Booking>> getTopBookingsByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        return bookingService.getTopBookingsByPrice(limit, descending, status, type);
+    }
+}
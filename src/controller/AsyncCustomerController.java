@@ -0,0 +1,51 @@
+package controller;
+
+import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import service.interfaces.AsyncCustomerServiceInterface;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncCustomerController {
+    private final AsyncCustomerServiceInterface customerService;
+
+    public AsyncCustomerController(AsyncCustomerServiceInterface customerService) {
+        this.customerService = customerService;
+    }
+
+    public CompletableFuture<Void> createCustomer(Customer customer) {
+        return customerService.createCustomer(customer);
+    }
+
+    public CompletableFuture<BatchResult<Customer>> createCustomers(List<Customer> customers) {
+        return customerService.createCustomers(customers);
+    }
+
+    public CompletableFuture<List<Customer>> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    public CompletableFuture<Page<Customer>> getCustomersPage(PageRequest request) {
+        return customerService.getCustomersPage(request);
+    }
+
+    public CompletableFuture<Customer> getCustomerById(int id) {
+        return customerService.getCustomerById(id);
+    }
+
+    public CompletableFuture<Optional<Customer>> findCustomerByEmail(String email) {
+        return customerService.findCustomerByEmail(email);
+    }
+
+    public CompletableFuture<Void> updateCustomer(int id, Customer customer) {
+        return customerService.updateCustomer(id, customer);
+    }
+
+    public CompletableFuture<Void> deleteCustomer(int id) {
+        return customerService.deleteCustomer(id);
+    }
+}
@@ -1,6 +1,10 @@
 package controller;
 
 import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import service.interfaces.BookingServiceInterface;
 
 import java.util.List;
@@ -16,10 +20,18 @@ public class BookingController {
         bookingService.createBooking(booking);
     }
 
+    public BatchResult<Booking> createBookings(List<Booking> bookings) {
+        return bookingService.createBookings(bookings);
+    }
+
     public List<Booking> getAllBookings() {
         return bookingService.getAllBookings();
     }
 
+    public Page<Booking> getBookingsPage(PageRequest request) {
+        return bookingService.getBookingsPage(request);
+    }
+
     public Booking getBookingById(int id) {
         return bookingService.getBookingById(id);
     }
@@ -43,4 +55,8 @@ public class BookingController {
     public List<Booking> getSortedBookingsByPrice() {
         return bookingService.getSortedBookingsByPrice();
     }
+
+    public List<Booking> getTopBookingsByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        return bookingService.getTopBookingsByPrice(limit, descending, status, type);
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package controller;
 
 import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import service.interfaces.CustomerServiceInterface;
 
 import java.util.List;
+import java.util.Optional;
 
 public class CustomerController {
     private final CustomerServiceInterface customerService;
@@ -16,14 +20,26 @@ public class CustomerController {
         customerService.createCustomer(customer);
     }
 
+    public BatchResult<Customer> createCustomers(List<Customer> customers) {
+        return customerService.createCustomers(customers);
+    }
+
     public List<Customer> getAllCustomers() {
         return customerService.getAllCustomers();
     }
 
+    public Page<Customer> getCustomersPage(PageRequest request) {
+        return customerService.getCustomersPage(request);
+    }
+
     public Customer getCustomerById(int id) {
         return customerService.getCustomerById(id);
     }
 
+    public Optional<Customer> findCustomerByEmail(String email) {
+        return customerService.findCustomerByEmail(email);
+    }
+
     public void updateCustomer(int id, Customer customer) {
         customerService.updateCustomer(id, customer);
     }
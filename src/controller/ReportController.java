@@ -0,0 +1,43 @@
+package controller;
+
+import model.BookingStatus;
+import model.CustomerActivity;
+import model.HotelOccupancy;
+import model.RevenueBreakdown;
+import model.RouteStats;
+import service.interfaces.ReportServiceInterface;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class ReportController {
+    private final ReportServiceInterface reportService;
+
+    public ReportController(ReportServiceInterface reportService) {
+        this.reportService = reportService;
+    }
+
+    public List<RevenueBreakdown> getRevenueByStatus(LocalDate from, LocalDate to) {
+        return reportService.getRevenueByStatus(from, to);
+    }
+
+    public List<RevenueBreakdown> getRevenueByType(LocalDate from, LocalDate to, BookingStatus status) {
+        return reportService.getRevenueByType(from, to, status);
+    }
+
+    public List<RevenueBreakdown> getRevenueByDay(LocalDate from, LocalDate to, BookingStatus status) {
+        return reportService.getRevenueByDay(from, to, status);
+    }
+
+    public List<CustomerActivity> getTopCustomers(int limit) {
+        return reportService.getTopCustomers(limit);
+    }
+
+    public List<RouteStats> getTopRoutes(int limit, BookingStatus status) {
+        return reportService.getTopRoutes(limit, status);
+    }
+
+    public List<HotelOccupancy> getHotelOccupancy(LocalDate from, LocalDate to, BookingStatus status) {
+        return reportService.getHotelOccupancy(from, to, status);
+    }
+}
@@ -0,0 +1,66 @@
+package controller;
+
+import model.PackageSummary;
+import model.TravelPackage;
+import repository.interfaces.BulkTransitionResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import service.interfaces.TravelPackageServiceInterface;
+
+import java.util.List;
+
+public class TravelPackageController {
+    private final TravelPackageServiceInterface packageService;
+
+    public TravelPackageController(TravelPackageServiceInterface packageService) {
+        this.packageService = packageService;
+    }
+
+    public void createPackage(TravelPackage travelPackage) {
+        packageService.createPackage(travelPackage);
+    }
+
+    public List<TravelPackage> getAllPackages() {
+        return packageService.getAllPackages();
+    }
+
+    public Page<TravelPackage> getPackagesPage(PageRequest request) {
+        return packageService.getPackagesPage(request);
+    }
+
+    public TravelPackage getPackageById(int id) {
+        return packageService.getPackageById(id);
+    }
+
+    public void updatePackage(int id, TravelPackage travelPackage) {
+        packageService.updatePackage(id, travelPackage);
+    }
+
+    public void deletePackage(int id) {
+        packageService.deletePackage(id);
+    }
+
+    public int addBookingsToPackage(int packageId, List<Integer> bookingIds) {
+        return packageService.addBookingsToPackage(packageId, bookingIds);
+    }
+
+    public void removeBookingFromPackage(int packageId, int bookingId) {
+        packageService.removeBookingFromPackage(packageId, bookingId);
+    }
+
+    public PackageSummary getPackageSummary(int id) {
+        return packageService.getPackageSummary(id);
+    }
+
+    public List<PackageSummary> getPackageSummariesByCustomer(int customerId) {
+        return packageService.getPackageSummariesByCustomer(customerId);
+    }
+
+    public BulkTransitionResult confirmPackage(int packageId) {
+        return packageService.confirmPackage(packageId);
+    }
+
+    public BulkTransitionResult cancelPackage(int packageId) {
+        return packageService.cancelPackage(packageId);
+    }
+}
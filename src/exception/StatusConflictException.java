@@ -0,0 +1,40 @@
+package exception;
+
+/**
+ * A conditional status change found the resource in a status it may not change from,
+ * typically because another request changed it first.
+ */
+public class StatusConflictException extends IllegalStateException {
+    private String resourceType;
+    private int resourceId;
+    private String currentStatus;
+    private String targetStatus;
+
+    public StatusConflictException(String message) {
+        super(message);
+    }
+
+    public StatusConflictException(String resourceType, int resourceId, String currentStatus, String targetStatus) {
+        super(String.format("%s with ID %d is %s and cannot become %s", resourceType, resourceId, currentStatus, targetStatus));
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.currentStatus = currentStatus;
+        this.targetStatus = targetStatus;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public int getResourceId() {
+        return resourceId;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public String getTargetStatus() {
+        return targetStatus;
+    }
+}
@@ -0,0 +1,472 @@
+package logging;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous structured event log. Callers build an event in a per-thread builder and
+ * publish it into a preallocated ring buffer; one background thread formats the events as
+ * logfmt lines and writes them out in batches, so logging threads never take the output
+ * stream's lock or wait for I/O:
+ * <pre>
+ * EventLog.getDefault().info("booking.status_changed")
+ *         .with("bookingId", id)
+ *         .with("status", status)
+ *         .publish();
+ * </pre>
+ * writes {@code 2026-01-01T12:00:00.000Z INFO booking.status_changed bookingId=42 status=CONFIRMED}.
+ * <p>
+ * A ring slot is only claimed inside {@link Event#publish()}, with one CAS, after every field
+ * has been evaluated; an event abandoned before publish (say, because computing a field
+ * threw) is simply never written and holds nothing up. Numeric fields and constants (strings,
+ * enums) allocate nothing; other values are stringified on the writer thread, so they must not
+ * be mutated after publishing. When the ring is full, {@link Overflow#DROP} discards the event
+ * and counts it (reported in the log and in {@code eventlog_dropped_total}), and
+ * {@link Overflow#BLOCK} makes the caller wait for space.
+ * <p>
+ * The default log writes to standard output, or appends to {@code -Deventlog.file}; it is
+ * tuned with {@code -Deventlog.level} (INFO), {@code -Deventlog.capacity} (8192) and
+ * {@code -Deventlog.overflow} (DROP), and is drained by a shutdown hook.
+ */
+public class EventLog implements AutoCloseable {
+
+    public enum Overflow {
+        DROP, BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    static final int MAX_FIELDS = 8;
+
+    // An idle writer polls a few times, then parks until a producer wakes it
+    private static final int IDLE_POLLS = 8;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+    private static final Counter DROPPED_TOTAL = MetricsRegistry.getDefault().counter("eventlog_dropped_total");
+    private static final Event DISCARD = new Event(null);
+
+    private final Slot[] ring;
+    private final int mask;
+    private final Writer out;
+    private final Overflow overflow;
+    private volatile Level level;
+    private final ThreadLocal<Event> builders = ThreadLocal.withInitial(() -> new Event(this));
+
+    // Next sequence to hand out, and next sequence the writer will read
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    // Writer thread only: events within the same millisecond share one formatted timestamp
+    private long stampMillis = Long.MIN_VALUE;
+    private String stamp;
+
+    private EventLog(Writer out, int size, Overflow overflow, Level level) {
+        this.ring = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.out = out;
+        this.overflow = overflow;
+        this.level = level;
+    }
+
+    /**
+     * Creates a log and starts its writer thread.
+     *
+     * @param capacity ring size, rounded up to a power of two
+     */
+    public static EventLog create(Writer out, int capacity, Overflow overflow, Level level) {
+        if (out == null || overflow == null || level == null) {
+            throw new IllegalArgumentException("Writer, overflow policy and level are required");
+        }
+        if (capacity <= 0 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("Event log capacity must be between 1 and 16777216");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        EventLog log = new EventLog(out, size, overflow, level);
+        log.writer = new Thread(log::drain, "event-log-writer");
+        log.writer.setDaemon(true);
+        log.writer.start();
+        return log;
+    }
+
+    public static EventLog getDefault() {
+        return DefaultLog.INSTANCE;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0 && !closed;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public void setLevel(Level level) {
+        if (level == null) {
+            throw new IllegalArgumentException("Level cannot be null");
+        }
+        this.level = level;
+    }
+
+    /**
+     * Starts an event; add fields with {@code with} and finish with {@link Event#publish()}.
+     * Below the log's level or after close, the returned event ignores everything.
+     */
+    public Event at(Level level, String name) {
+        if (!isEnabled(level)) {
+            return DISCARD;
+        }
+        Event event = builders.get();
+        if (event.inUse) {
+            // Started while computing a field of another event, or an earlier event was abandoned
+            event = new Event(this);
+            builders.set(event);
+        }
+        event.begin(level, name, System.currentTimeMillis());
+        return event;
+    }
+
+    public Event info(String name) {
+        return at(Level.INFO, name);
+    }
+
+    public Event warn(String name) {
+        return at(Level.WARN, name);
+    }
+
+    /**
+     * Events discarded because the ring was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Events published but not yet written.
+     */
+    public long getBacklog() {
+        return claimed.get() - consumed.get();
+    }
+
+    /**
+     * Stops accepting events, writes out the ones already published and flushes. Events
+     * published concurrently with close may be lost.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(Event event) {
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= ring.length) {
+                if (overflow == Overflow.DROP) {
+                    dropped.increment();
+                    DROPPED_TOTAL.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (closed) {
+                    return;
+                }
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        Slot slot = ring[(int) sequence & mask];
+        slot.copyFrom(event);
+        slot.published = sequence;
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        long next = consumed.get();
+        long reportedDrops = 0;
+        boolean unflushed = false;
+        int idlePolls = 0;
+        while (true) {
+            Slot slot = ring[(int) next & mask];
+            if (slot.published == next) {
+                line.setLength(0);
+                slot.format(line, this);
+                slot.clear();
+                consumed.set(++next);
+                write(line);
+                unflushed = true;
+                idlePolls = 0;
+                continue;
+            }
+            long drops = dropped.sum();
+            if (drops > reportedDrops) {
+                line.setLength(0);
+                appendHeader(line, System.currentTimeMillis(), Level.WARN, "eventlog.dropped");
+                line.append(" count=").append(drops - reportedDrops).append('\n');
+                write(line);
+                reportedDrops = drops;
+                unflushed = true;
+            }
+            if (unflushed) {
+                flush();
+                unflushed = false;
+            }
+            if (closed && next == claimed.get()) {
+                return;
+            }
+            if (idlePolls < IDLE_POLLS) {
+                idlePolls++;
+                LockSupport.parkNanos(this, IDLE_POLL_NANOS);
+                continue;
+            }
+            // Publishers unpark the writer when they see this flag; recheck the slot after
+            // setting it so that an event published in between is not slept through
+            writerParked = true;
+            if (slot.published != next && !closed) {
+                LockSupport.park(this);
+            }
+            writerParked = false;
+        }
+    }
+
+    private void write(CharSequence text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            System.err.println("Event log write failed: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Event log flush failed: " + e.getMessage());
+        }
+    }
+
+    private void appendHeader(StringBuilder line, long timestamp, Level level, String name) {
+        if (timestamp != stampMillis) {
+            stamp = TIMESTAMP.format(Instant.ofEpochMilli(timestamp));
+            stampMillis = timestamp;
+        }
+        line.append(stamp).append(' ').append(level.name()).append(' ').append(name);
+    }
+
+    private static EventLog createDefault() {
+        Writer writer;
+        String file = System.getProperty("eventlog.file");
+        try {
+            writer = file != null
+                    ? Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Cannot open event log " + file + ", logging to stdout: " + e.getMessage());
+            writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+        EventLog log = create(writer,
+                Integer.getInteger("eventlog.capacity", DEFAULT_CAPACITY),
+                Overflow.valueOf(System.getProperty("eventlog.overflow", "DROP").toUpperCase()),
+                Level.valueOf(System.getProperty("eventlog.level", "INFO").toUpperCase()));
+        MetricsRegistry.getDefault().gauge("eventlog_backlog", log::getBacklog);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "event-log-shutdown"));
+        return log;
+    }
+
+    private static final class DefaultLog {
+        static final EventLog INSTANCE = createDefault();
+    }
+
+    /**
+     * An event being built. Each thread reuses one, so it must not be kept after
+     * {@link #publish()}.
+     */
+    public static final class Event {
+        private final EventLog log;
+        private final String[] keys = new String[MAX_FIELDS];
+        private final long[] numbers = new long[MAX_FIELDS];
+        private final Object[] values = new Object[MAX_FIELDS];
+        private Level level;
+        private String name;
+        private long timestamp;
+        private int fieldCount;
+        private boolean inUse;
+
+        private Event(EventLog log) {
+            this.log = log;
+        }
+
+        /**
+         * Adds a field; fields past the eighth are ignored.
+         */
+        public Event with(String key, long value) {
+            if (log != null && fieldCount < MAX_FIELDS) {
+                keys[fieldCount] = key;
+                numbers[fieldCount] = value;
+                values[fieldCount++] = Slot.NUMBER;
+            }
+            return this;
+        }
+
+        public Event with(String key, Object value) {
+            if (log != null && fieldCount < MAX_FIELDS) {
+                keys[fieldCount] = key;
+                values[fieldCount++] = value;
+            }
+            return this;
+        }
+
+        /**
+         * Hands the event to the writer.
+         */
+        public void publish() {
+            if (log == null) {
+                return;
+            }
+            try {
+                log.append(this);
+            } finally {
+                for (int i = 0; i < fieldCount; i++) {
+                    keys[i] = null;
+                    values[i] = null;
+                }
+                fieldCount = 0;
+                name = null;
+                inUse = false;
+            }
+        }
+
+        private void begin(Level level, String name, long timestamp) {
+            for (int i = 0; i < fieldCount; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+            this.level = level;
+            this.name = name;
+            this.timestamp = timestamp;
+            this.fieldCount = 0;
+            this.inUse = true;
+        }
+    }
+
+    /**
+     * One entry of the ring, reused once the writer has consumed it.
+     */
+    private static final class Slot {
+        // Marks a field whose value is in numbers[] rather than values[]
+        static final Object NUMBER = new Object();
+
+        private final String[] keys = new String[MAX_FIELDS];
+        private final long[] numbers = new long[MAX_FIELDS];
+        private final Object[] values = new Object[MAX_FIELDS];
+        private Level level;
+        private String name;
+        private long timestamp;
+        private int fieldCount;
+        private volatile long published = -1;
+
+        private void copyFrom(Event event) {
+            level = event.level;
+            name = event.name;
+            timestamp = event.timestamp;
+            fieldCount = event.fieldCount;
+            System.arraycopy(event.keys, 0, keys, 0, fieldCount);
+            System.arraycopy(event.numbers, 0, numbers, 0, fieldCount);
+            System.arraycopy(event.values, 0, values, 0, fieldCount);
+        }
+
+        private void clear() {
+            name = null;
+            for (int i = 0; i < fieldCount; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+            fieldCount = 0;
+        }
+
+        private void format(StringBuilder line, EventLog owner) {
+            owner.appendHeader(line, timestamp, level, name);
+            for (int i = 0; i < fieldCount; i++) {
+                line.append(' ').append(keys[i]).append('=');
+                if (values[i] == NUMBER) {
+                    line.append(numbers[i]);
+                } else {
+                    String text;
+                    try {
+                        text = String.valueOf(values[i]);
+                    } catch (RuntimeException e) {
+                        // A failing toString must not take the writer thread down
+                        text = "<" + e.getClass().getSimpleName() + ">";
+                    }
+                    appendValue(line, text);
+                }
+            }
+            line.append('\n');
+        }
+
+        private static void appendValue(StringBuilder line, String value) {
+            boolean quote = value.isEmpty();
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c <= ' ' || c == '=' || c == '"';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\').append(c);
+                } else if (c == '\n') {
+                    line.append("\\n");
+                } else {
+                    line.append(c);
+                }
+            }
+            line.append('"');
+        }
+    }
+}
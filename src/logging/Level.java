@@ -0,0 +1,5 @@
+package logging;
+
+public enum Level {
+    DEBUG, INFO, WARN, ERROR
+}
@@ -0,0 +1,47 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count. Increments are striped, so hot counters shared by many
+ * threads do not contend on one cache line.
+ */
+public class Counter extends Metric {
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, String[] labels) {
+        super(name, labels);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Counter increment cannot be negative");
+        }
+        count.add(n);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        writeSample(out, "", null, null, count.sum());
+    }
+
+    @Override
+    Map<String, Number> attributes() {
+        return Collections.singletonMap("Count", count.sum());
+    }
+}
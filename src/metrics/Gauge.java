@@ -0,0 +1,37 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Value sampled from a supplier each time metrics are read, e.g. the number of busy pool
+ * connections.
+ */
+public class Gauge extends Metric {
+    private final DoubleSupplier value;
+
+    Gauge(String name, String[] labels, DoubleSupplier value) {
+        super(name, labels);
+        this.value = value;
+    }
+
+    public double getValue() {
+        return value.getAsDouble();
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        writeSample(out, "", null, null, getValue());
+    }
+
+    @Override
+    Map<String, Number> attributes() {
+        return Collections.singletonMap("Value", getValue());
+    }
+}
@@ -0,0 +1,167 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of non-negative long values in log-linear buckets, in the manner of
+ * HdrHistogram: every power of two is split into 32 equal sub-buckets, so any recorded value
+ * is reported within about 3% across the whole long range, in a fixed 15 KB of counts.
+ * Recording is one array increment plus two striped adds, without locks or allocation.
+ * <p>
+ * Exported as a Prometheus summary with the 0.5, 0.9, 0.99 and 0.999 quantiles; quantile 1
+ * is the exact maximum.
+ */
+public class Histogram extends Metric {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final double[] EXPORTED_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    // Multiplier applied to exported values, e.g. nanoseconds to seconds
+    private final double unitScale;
+
+    Histogram(String name, String[] labels) {
+        this(name, labels, 1.0);
+    }
+
+    Histogram(String name, String[] labels, double unitScale) {
+        super(name, labels);
+        this.unitScale = unitScale;
+    }
+
+    /**
+     * Records one value; negative values count as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketFor(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Point-in-time copy of the distribution, in recorded units.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), max.get());
+    }
+
+    static int bucketFor(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        // value lies in [2^(shift + 5), 2^(shift + 6)); keep its top 6 bits
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long lowestValueIn(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    static long highestValueIn(int bucket) {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : lowestValueIn(bucket + 1) - 1;
+    }
+
+    @Override
+    String type() {
+        return "summary";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        Snapshot snapshot = snapshot();
+        for (double q : EXPORTED_QUANTILES) {
+            writeSample(out, "", "quantile", Double.toString(q), snapshot.getValueAtQuantile(q) * unitScale);
+        }
+        writeSample(out, "", "quantile", "1", snapshot.getMax() * unitScale);
+        writeSample(out, "_sum", null, null, snapshot.getSum() * unitScale);
+        writeSample(out, "_count", null, null, snapshot.getCount());
+    }
+
+    @Override
+    Map<String, Number> attributes() {
+        Snapshot snapshot = snapshot();
+        Map<String, Number> attributes = new LinkedHashMap<>();
+        attributes.put("Count", snapshot.getCount());
+        attributes.put("Sum", snapshot.getSum() * unitScale);
+        attributes.put("Mean", snapshot.getMean() * unitScale);
+        attributes.put("P50", snapshot.getValueAtQuantile(0.5) * unitScale);
+        attributes.put("P90", snapshot.getValueAtQuantile(0.9) * unitScale);
+        attributes.put("P99", snapshot.getValueAtQuantile(0.99) * unitScale);
+        attributes.put("P999", snapshot.getValueAtQuantile(0.999) * unitScale);
+        attributes.put("Max", snapshot.getMax() * unitScale);
+        return attributes;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Smallest bucket bound at or below which {@code quantile} of the values fall, capped
+         * at the exact maximum; 0 when nothing was recorded.
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * A named, optionally labelled measurement held by a {@link MetricsRegistry}.
+ */
+public abstract class Metric {
+    private final String name;
+    private final String[] labels;
+
+    Metric(String name, String[] labels) {
+        this.name = name;
+        this.labels = labels;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Label names and values, alternating: {@code ["entity", "Booking", "operation", "getById"]}.
+     */
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * Prometheus metric type: "counter", "gauge" or "summary".
+     */
+    abstract String type();
+
+    /**
+     * Appends this metric's samples in the Prometheus text exposition format.
+     */
+    abstract void writeSamples(StringBuilder out);
+
+    /**
+     * Current values by attribute name, as exposed over JMX.
+     */
+    abstract Map<String, Number> attributes();
+
+    void writeSample(StringBuilder out, String suffix, String extraLabel, String extraValue, double value) {
+        out.append(name).append(suffix);
+        if (labels.length > 0 || extraLabel != null) {
+            out.append('{');
+            boolean first = true;
+            for (int i = 0; i < labels.length; i += 2) {
+                first = appendLabel(out, labels[i], labels[i + 1], first);
+            }
+            if (extraLabel != null) {
+                appendLabel(out, extraLabel, extraValue, first);
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static boolean appendLabel(StringBuilder out, String label, String value, boolean first) {
+        if (!first) {
+            out.append(',');
+        }
+        out.append(label).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+        return false;
+    }
+}
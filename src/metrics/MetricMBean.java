@@ -0,0 +1,74 @@
+package metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+import java.util.Map;
+
+/**
+ * Read-only JMX view of one metric; each attribute is re-read from the metric on access.
+ */
+class MetricMBean implements DynamicMBean {
+    private final Metric metric;
+    private final MBeanInfo info;
+
+    MetricMBean(Metric metric) {
+        this.metric = metric;
+        Map<String, Number> current = metric.attributes();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[current.size()];
+        int i = 0;
+        for (Map.Entry<String, Number> e : current.entrySet()) {
+            attributes[i++] = new MBeanAttributeInfo(e.getKey(), e.getValue().getClass().getName(),
+                    e.getKey(), true, false, false);
+        }
+        this.info = new MBeanInfo(metric.getClass().getName(), metric.getName() + " (" + metric.type() + ")",
+                attributes, null, new MBeanOperationInfo[0], null);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Number value = metric.attributes().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Map<String, Number> current = metric.attributes();
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            Number value = current.get(name);
+            if (value != null) {
+                list.add(new Attribute(name, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metric attributes are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+}
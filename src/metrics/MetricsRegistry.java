@@ -0,0 +1,173 @@
+package metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide set of metrics, keyed by name and labels. Looking a metric up allocates, so
+ * hot paths resolve theirs once and keep the instance in a field; recording on the instance
+ * is lock-free.
+ * <p>
+ * Names and label names follow Prometheus rules ({@code [a-zA-Z_:][a-zA-Z0-9_:]*}); labels are
+ * passed as alternating name/value pairs and must be given in the same order on every lookup.
+ * {@link #scrape()} renders everything in the Prometheus text format, and
+ * {@link #enableJmx(String)} publishes each metric as an MBean named
+ * {@code <domain>:name=<metric>,<label>=<value>...}.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // Sorted so that every label set of a name is contiguous when scraping
+    private final ConcurrentSkipListMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private volatile String jmxDomain;
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name, String... labels) {
+        return getOrCreate(name, labels, Counter.class, Counter::new);
+    }
+
+    public Histogram histogram(String name, String... labels) {
+        return getOrCreate(name, labels, Histogram.class, Histogram::new);
+    }
+
+    public Timer timer(String name, String... labels) {
+        return getOrCreate(name, labels, Timer.class, Timer::new);
+    }
+
+    /**
+     * Registers a gauge read from {@code value}; if the gauge already exists it is returned
+     * unchanged and {@code value} is ignored.
+     */
+    public Gauge gauge(String name, DoubleSupplier value, String... labels) {
+        if (value == null) {
+            throw new IllegalArgumentException("Gauge supplier cannot be null");
+        }
+        return getOrCreate(name, labels, Gauge.class, (n, l) -> new Gauge(n, l, value));
+    }
+
+    public List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format (version 0.0.4).
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        String family = null;
+        for (Metric metric : metrics.values()) {
+            if (!metric.getName().equals(family)) {
+                family = metric.getName();
+                out.append("# TYPE ").append(family).append(' ').append(metric.type()).append('\n');
+            }
+            metric.writeSamples(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Registers every current and future metric with the platform MBean server under
+     * {@code domain}. Calling it again has no effect.
+     */
+    public synchronized void enableJmx(String domain) {
+        if (jmxDomain != null) {
+            return;
+        }
+        jmxDomain = domain;
+        for (Metric metric : metrics.values()) {
+            register(domain, metric);
+        }
+    }
+
+    private <T extends Metric> T getOrCreate(String name, String[] labels, Class<T> type,
+                                             BiFunction<String, String[], T> factory) {
+        String key = key(name, labels);
+        Metric metric = metrics.get(key);
+        if (metric == null) {
+            validate(name, labels);
+            Metric created = factory.apply(name, labels.clone());
+            metric = metrics.putIfAbsent(key, created);
+            if (metric == null) {
+                metric = created;
+                String domain = jmxDomain;
+                if (domain != null) {
+                    register(domain, created);
+                }
+            }
+        }
+        if (metric.getClass() != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a "
+                    + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    // Always "name{" first, so that a name and its label sets sort next to each other; label
+    // values may contain anything printable, hence the NUL separators
+    private static String key(String name, String[] labels) {
+        StringBuilder key = new StringBuilder(name).append('{');
+        for (String label : labels) {
+            key.append(label).append('\0');
+        }
+        return key.toString();
+    }
+
+    private static void validate(String name, String[] labels) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs: " + name);
+        }
+        for (int i = 0; i < labels.length; i += 2) {
+            if (!isValidName(labels[i]) || labels[i].indexOf(':') >= 0 || labels[i].equals("name")) {
+                throw new IllegalArgumentException("Invalid label name for " + name + ": " + labels[i]);
+            }
+            if (labels[i + 1] == null) {
+                throw new IllegalArgumentException("Label " + labels[i] + " of " + name + " has no value");
+            }
+        }
+    }
+
+    private static boolean isValidName(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':'
+                    || (i > 0 && c >= '0' && c <= '9');
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void register(String domain, Metric metric) {
+        StringBuilder name = new StringBuilder(domain).append(":name=").append(metric.getName());
+        String[] labels = metric.getLabels();
+        for (int i = 0; i < labels.length; i += 2) {
+            name.append(',').append(labels[i]).append('=').append(ObjectName.quote(labels[i + 1]));
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new MetricMBean(metric), new ObjectName(name.toString()));
+        } catch (InstanceAlreadyExistsException e) {
+            // Registered by a concurrent enableJmx
+        } catch (JMException e) {
+            System.err.println("Could not register metric MBean " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram recorded in nanoseconds and exported in seconds.
+ * <p>
+ * Typical use keeps the start time in a local, which costs nothing on the heap:
+ * <pre>
+ * long start = System.nanoTime();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.recordSince(start);
+ * }
+ * </pre>
+ */
+public class Timer extends Histogram {
+    private static final double SECONDS_PER_NANO = 1e-9;
+
+    Timer(String name, String[] labels) {
+        super(name, labels, SECONDS_PER_NANO);
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration));
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a value of {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+}
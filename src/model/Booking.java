@@ -1,13 +1,34 @@
 package model;
 
+import logging.EventLog;
+
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 public abstract class Booking implements Validatable, Billable {
+    // Field bits reported by getDirtyFields(); subclasses number theirs from FIRST_SUBCLASS_FIELD
+    public static final int BOOKING_DATE = 1;
+    public static final int TOTAL_PRICE = 1 << 1;
+    public static final int STATUS = 1 << 2;
+    public static final int CUSTOMER_ID = 1 << 3;
+    protected static final int FIRST_SUBCLASS_FIELD = 1 << 4;
+    private static final int ALL_FIELDS = -1;
+
+    /**
+     * Statuses confirm() and cancel() accept: a cancelled booking never changes status again.
+     */
+    public static final Set<BookingStatus> STATUS_CHANGEABLE_FROM =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(BookingStatus.CANCELLED)));
+
     private int id;
     private LocalDate bookingDate;
     private double totalPrice;
     private BookingStatus status;
     private int customerId;
+    // A new object is entirely dirty, so updating with it writes every column
+    private int dirtyFields = ALL_FIELDS;
 
     public Booking(int id, LocalDate bookingDate, double totalPrice, BookingStatus status, int customerId) {
         this.id = id;
@@ -24,16 +45,28 @@ public abstract class Booking implements Validatable, Billable {
         if (this.status == BookingStatus.CANCELLED) {
             throw new IllegalStateException("Cannot confirm a cancelled booking");
         }
+        BookingStatus previous = this.status;
         this.status = BookingStatus.CONFIRMED;
-        System.out.println("Booking #" + id + " confirmed successfully");
+        markDirty(STATUS);
+        logStatusChange(previous);
     }
 
     public void cancel() {
         if (this.status == BookingStatus.CANCELLED) {
             throw new IllegalStateException("Booking is already cancelled");
         }
+        BookingStatus previous = this.status;
         this.status = BookingStatus.CANCELLED;
-        System.out.println("Booking #" + id + " cancelled successfully");
+        markDirty(STATUS);
+        logStatusChange(previous);
+    }
+
+    private void logStatusChange(BookingStatus previous) {
+        EventLog.getDefault().info("booking.status_changed")
+                .with("bookingId", id)
+                .with("from", previous)
+                .with("status", status)
+                .publish();
     }
 
     @Override
@@ -72,6 +105,7 @@ public abstract class Booking implements Validatable, Billable {
             throw new IllegalStateException("Booking date cannot be null");
         }
         this.bookingDate = bookingDate;
+        markDirty(BOOKING_DATE);
     }
 
     public double getTotalPrice() {
@@ -83,6 +117,7 @@ public abstract class Booking implements Validatable, Billable {
             throw new IllegalStateException("Total price must be greater than 0");
         }
         this.totalPrice = totalPrice;
+        markDirty(TOTAL_PRICE);
     }
 
     public BookingStatus getStatus() {
@@ -94,6 +129,7 @@ public abstract class Booking implements Validatable, Billable {
             throw new IllegalArgumentException("Status cannot be null");
         }
         this.status = status;
+        markDirty(STATUS);
     }
 
     public int getCustomerId() {
@@ -105,6 +141,29 @@ public abstract class Booking implements Validatable, Billable {
             throw new IllegalStateException("Customer ID must be greater than 0");
         }
         this.customerId = customerId;
+        markDirty(CUSTOMER_ID);
+    }
+
+    /**
+     * Bit set of the fields changed since the object was loaded or last stored.
+     */
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    public boolean isDirty(int fields) {
+        return (dirtyFields & fields) != 0;
+    }
+
+    /**
+     * Called by repositories once the object matches what is stored.
+     */
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    protected void markDirty(int field) {
+        dirtyFields |= field;
     }
 
     @Override
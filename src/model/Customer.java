@@ -1,11 +1,20 @@
 package model;
 
 public class Customer implements Validatable {
+    // Field bits reported by getDirtyFields()
+    public static final int NAME = 1;
+    public static final int EMAIL = 1 << 1;
+    public static final int PHONE = 1 << 2;
+    public static final int PASSPORT_NUMBER = 1 << 3;
+    private static final int ALL_FIELDS = -1;
+
     private int id;
     private String name;
     private String email;
     private String phone;
     private String passportNumber;
+    // A new object is entirely dirty, so updating with it writes every column
+    private int dirtyFields = ALL_FIELDS;
 
     public Customer(int id, String name, String email, String phone, String passportNumber) {
         this.id = id;
@@ -17,19 +26,19 @@ public class Customer implements Validatable {
 
     @Override
     public void validate() {
-        if (name == null || name.trim().isEmpty()) {
+        if (ValidationRules.isBlank(name)) {
             throw new IllegalArgumentException("Customer name cannot be empty");
         }
         if (name.length() < 2) {
             throw new IllegalArgumentException("Customer name must be at least 2 characters");
         }
-        if (email == null || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!ValidationRules.isValidEmail(email)) {
             throw new IllegalArgumentException("Invalid email format");
         }
-        if (phone == null || phone.trim().isEmpty()) {
+        if (ValidationRules.isBlank(phone)) {
             throw new IllegalArgumentException("Phone number cannot be empty");
         }
-        if (passportNumber == null || passportNumber.trim().isEmpty()) {
+        if (ValidationRules.isBlank(passportNumber)) {
             throw new IllegalArgumentException("Passport number cannot be empty");
         }
     }
@@ -50,13 +59,14 @@ public class Customer implements Validatable {
     }
 
     public void setName(String name) {
-        if (name == null || name.trim().isEmpty()) {
+        if (ValidationRules.isBlank(name)) {
             throw new IllegalArgumentException("Customer name cannot be empty");
         }
         if (name.length() < 2) {
             throw new IllegalArgumentException("Customer name must be at least 2 characters");
         }
         this.name = name;
+        markDirty(NAME);
     }
 
     public String getEmail() {
@@ -64,10 +74,11 @@ public class Customer implements Validatable {
     }
 
     public void setEmail(String email) {
-        if (email == null || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!ValidationRules.isValidEmail(email)) {
             throw new IllegalArgumentException("Invalid email format");
         }
         this.email = email;
+        markDirty(EMAIL);
     }
 
     public String getPhone() {
@@ -75,10 +86,11 @@ public class Customer implements Validatable {
     }
 
     public void setPhone(String phone) {
-        if (phone == null || phone.trim().isEmpty()) {
+        if (ValidationRules.isBlank(phone)) {
             throw new IllegalArgumentException("Phone number cannot be empty");
         }
         this.phone = phone;
+        markDirty(PHONE);
     }
 
     public String getPassportNumber() {
@@ -86,10 +98,33 @@ public class Customer implements Validatable {
     }
 
     public void setPassportNumber(String passportNumber) {
-        if (passportNumber == null || passportNumber.trim().isEmpty()) {
+        if (ValidationRules.isBlank(passportNumber)) {
             throw new IllegalArgumentException("Passport number cannot be empty");
         }
         this.passportNumber = passportNumber;
+        markDirty(PASSPORT_NUMBER);
+    }
+
+    /**
+     * Bit set of the fields changed since the object was loaded or last stored.
+     */
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    public boolean isDirty(int fields) {
+        return (dirtyFields & fields) != 0;
+    }
+
+    /**
+     * Called by repositories once the object matches what is stored.
+     */
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    private void markDirty(int field) {
+        dirtyFields |= field;
     }
 
     @Override
@@ -0,0 +1,45 @@
+package model;
+
+public class CustomerActivity {
+    private final int customerId;
+    private final String customerName;
+    private final String customerEmail;
+    private final long bookingCount;
+    private final double totalSpent;
+
+    public CustomerActivity(int customerId, String customerName, String customerEmail, long bookingCount, double totalSpent) {
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.bookingCount = bookingCount;
+        this.totalSpent = totalSpent;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public long getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Summed price of the customer's bookings that are not cancelled.
+     */
+    public double getTotalSpent() {
+        return totalSpent;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Customer #%d %s: %d bookings, %.2f spent", customerId, customerName, bookingCount, totalSpent);
+    }
+}
@@ -3,6 +3,11 @@ package model;
 import java.time.LocalDate;
 
 public class FlightBooking extends Booking {
+    public static final int FLIGHT_NUMBER = FIRST_SUBCLASS_FIELD;
+    public static final int ORIGIN = FIRST_SUBCLASS_FIELD << 1;
+    public static final int DESTINATION = FIRST_SUBCLASS_FIELD << 2;
+    public static final int SEAT_CLASS = FIRST_SUBCLASS_FIELD << 3;
+
     private String flightNumber;
     private String origin;
     private String destination;
@@ -49,13 +54,13 @@ public class FlightBooking extends Booking {
     @Override
     public void validate() {
         super.validate();
-        if (flightNumber == null || flightNumber.trim().isEmpty()) {
+        if (ValidationRules.isBlank(flightNumber)) {
             throw new IllegalArgumentException("Flight number cannot be empty");
         }
-        if (origin == null || origin.trim().isEmpty()) {
+        if (ValidationRules.isBlank(origin)) {
             throw new IllegalArgumentException("Origin cannot be empty");
         }
-        if (destination == null || destination.trim().isEmpty()) {
+        if (ValidationRules.isBlank(destination)) {
             throw new IllegalArgumentException("Destination cannot be empty");
         }
         if (origin.equalsIgnoreCase(destination)) {
@@ -71,10 +76,11 @@ public class FlightBooking extends Booking {
     }
 
     public void setFlightNumber(String flightNumber) {
-        if (flightNumber == null || flightNumber.trim().isEmpty()) {
+        if (ValidationRules.isBlank(flightNumber)) {
             throw new IllegalArgumentException("Flight number cannot be empty");
         }
         this.flightNumber = flightNumber;
+        markDirty(FLIGHT_NUMBER);
     }
 
     public String getOrigin() {
@@ -82,10 +88,11 @@ public class FlightBooking extends Booking {
     }
 
     public void setOrigin(String origin) {
-        if (origin == null || origin.trim().isEmpty()) {
+        if (ValidationRules.isBlank(origin)) {
             throw new IllegalArgumentException("Origin cannot be empty");
         }
         this.origin = origin;
+        markDirty(ORIGIN);
     }
 
     public String getDestination() {
@@ -93,10 +100,11 @@ public class FlightBooking extends Booking {
     }
 
     public void setDestination(String destination) {
-        if (destination == null || destination.trim().isEmpty()) {
+        if (ValidationRules.isBlank(destination)) {
             throw new IllegalArgumentException("Destination cannot be empty");
         }
         this.destination = destination;
+        markDirty(DESTINATION);
     }
 
     public SeatClass getSeatClass() {
@@ -108,6 +116,7 @@ public class FlightBooking extends Booking {
             throw new IllegalArgumentException("Seat class cannot be null");
         }
         this.seatClass = seatClass;
+        markDirty(SEAT_CLASS);
     }
 
     @Override
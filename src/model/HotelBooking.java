@@ -3,6 +3,10 @@
     import java.time.LocalDate;
 
     public class HotelBooking extends Booking {
+        public static final int HOTEL_NAME = FIRST_SUBCLASS_FIELD;
+        public static final int ROOM_TYPE = FIRST_SUBCLASS_FIELD << 1;
+        public static final int NIGHTS = FIRST_SUBCLASS_FIELD << 2;
+
         private String hotelName;
         private RoomType roomType;
         private int nights;
@@ -49,7 +53,7 @@
         @Override
         public void validate() {
             super.validate();
-            if (hotelName == null || hotelName.trim().isEmpty()) {
+            if (ValidationRules.isBlank(hotelName)) {
                 throw new IllegalArgumentException("Hotel name cannot be empty");
             }
             if (roomType == null) {
@@ -68,10 +72,11 @@
         }
 
         public void setHotelName(String hotelName) {
-            if (hotelName == null || hotelName.trim().isEmpty()) {
+            if (ValidationRules.isBlank(hotelName)) {
                 throw new IllegalArgumentException("Hotel name cannot be empty");
             }
             this.hotelName = hotelName;
+            markDirty(HOTEL_NAME);
         }
 
         public RoomType getRoomType() {
@@ -83,6 +88,7 @@
                 throw new IllegalArgumentException("Room type cannot be null");
             }
             this.roomType = roomType;
+            markDirty(ROOM_TYPE);
         }
 
         public int getNights() {
@@ -97,6 +103,7 @@
                 throw new IllegalArgumentException("Number of nights cannot exceed 365");
             }
             this.nights = nights;
+            markDirty(NIGHTS);
         }
 
         @Override
@@ -0,0 +1,39 @@
+package model;
+
+public class HotelOccupancy {
+    private final String hotelName;
+    private final long bookingCount;
+    private final long nights;
+    private final double revenue;
+
+    public HotelOccupancy(String hotelName, long bookingCount, long nights, double revenue) {
+        this.hotelName = hotelName;
+        this.bookingCount = bookingCount;
+        this.nights = nights;
+        this.revenue = revenue;
+    }
+
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    public long getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Room nights booked, summed over the hotel's bookings.
+     */
+    public long getNights() {
+        return nights;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d bookings, %d nights, %.2f", hotelName, bookingCount, nights, revenue);
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+/**
+ * Read-only totals for a travel package as computed by the database ({@code v_packages_summary}),
+ * without loading the package's bookings.
+ */
+public class PackageSummary {
+    private final int id;
+    private final String name;
+    private final int customerId;
+    private final String customerName;
+    private final String customerEmail;
+    private final double discountPercentage;
+    private final int bookingCount;
+    private final double totalBeforeDiscount;
+    private final double totalAfterDiscount;
+    private final double discountAmount;
+
+    public PackageSummary(int id, String name, int customerId, String customerName, String customerEmail,
+                          double discountPercentage, int bookingCount, double totalBeforeDiscount,
+                          double totalAfterDiscount, double discountAmount) {
+        this.id = id;
+        this.name = name;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.discountPercentage = discountPercentage;
+        this.bookingCount = bookingCount;
+        this.totalBeforeDiscount = totalBeforeDiscount;
+        this.totalAfterDiscount = totalAfterDiscount;
+        this.discountAmount = discountAmount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public double getTotalBeforeDiscount() {
+        return totalBeforeDiscount;
+    }
+
+    /**
+     * Same figure as {@link TravelPackage#calculatePrice()} on the loaded package, rounded to cents.
+     */
+    public double getTotalAfterDiscount() {
+        return totalAfterDiscount;
+    }
+
+    public double getDiscountAmount() {
+        return discountAmount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PackageSummary[id=%d, name=%s, customer=%s, bookings=%d, discount=%.2f%%, total=%.2f]",
+                id, name, customerName, bookingCount, discountPercentage, totalAfterDiscount);
+    }
+}
@@ -0,0 +1,34 @@
+package model;
+
+/**
+ * One group of a revenue report: the group key (a status, a booking type or an ISO date)
+ * with the number of bookings and their summed price.
+ */
+public class RevenueBreakdown {
+    private final String key;
+    private final long bookingCount;
+    private final double revenue;
+
+    public RevenueBreakdown(String key, long bookingCount, double revenue) {
+        this.key = key;
+        this.bookingCount = bookingCount;
+        this.revenue = revenue;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getBookingCount() {
+        return bookingCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d bookings, %.2f", key, bookingCount, revenue);
+    }
+}
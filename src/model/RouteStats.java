@@ -0,0 +1,36 @@
+package model;
+
+public class RouteStats {
+    private final String origin;
+    private final String destination;
+    private final long bookingCount;
+    private final double revenue;
+
+    public RouteStats(String origin, String destination, long bookingCount, double revenue) {
+        this.origin = origin;
+        this.destination = destination;
+        this.bookingCount = bookingCount;
+        this.revenue = revenue;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public long getBookingCount() {
+        return bookingCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s: %d bookings, %.2f", origin, destination, bookingCount, revenue);
+    }
+}
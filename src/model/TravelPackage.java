@@ -1,5 +1,7 @@
 package model;
 
+import logging.EventLog;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,7 +45,7 @@ public class TravelPackage implements Validatable, Billable {
 
     @Override
     public void validate() {
-        if (packageName == null || packageName.trim().isEmpty()) {
+        if (ValidationRules.isBlank(packageName)) {
             throw new IllegalArgumentException("Package name cannot be empty");
         }
         if (customerId <= 0) {
@@ -57,18 +59,34 @@ public class TravelPackage implements Validatable, Billable {
         }
     }
 
+    /**
+     * Confirms the in-memory bookings only; {@code TravelPackageService.confirmPackage} persists
+     * the change for a stored package in one statement.
+     */
     public void confirmAllBookings() {
         for (Booking booking : bookings) {
             booking.confirm();
         }
-        System.out.println("All bookings in package '" + packageName + "' confirmed");
+        logStatusChange(BookingStatus.CONFIRMED);
     }
 
+    /**
+     * Cancels the in-memory bookings only; see {@code TravelPackageService.cancelPackage}.
+     */
     public void cancelAllBookings() {
         for (Booking booking : bookings) {
             booking.cancel();
         }
-        System.out.println("All bookings in package '" + packageName + "' cancelled");
+        logStatusChange(BookingStatus.CANCELLED);
+    }
+
+    private void logStatusChange(BookingStatus status) {
+        EventLog.getDefault().info("package.status_changed")
+                .with("packageId", id)
+                .with("packageName", packageName)
+                .with("status", status)
+                .with("bookings", bookings.size())
+                .publish();
     }
 
     public String getPackageSummary() {
@@ -100,7 +118,7 @@ public class TravelPackage implements Validatable, Billable {
     }
 
     public void setPackageName(String packageName) {
-        if (packageName == null || packageName.trim().isEmpty()) {
+        if (ValidationRules.isBlank(packageName)) {
             throw new IllegalArgumentException("Package name cannot be empty");
         }
         this.packageName = packageName;
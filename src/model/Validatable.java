@@ -1,5 +1,7 @@
 package model;
 
+import logging.EventLog;
+
 public interface Validatable {
     void validate();
 
@@ -13,6 +15,6 @@ public interface Validatable {
     }
 
     static void printValidationMessage(Validatable obj) {
-        System.out.println("Validating: " + obj.getClass().getSimpleName());
+        EventLog.getDefault().info("validation.started").with("type", obj.getClass().getSimpleName()).publish();
     }
 }
\ No newline at end of file
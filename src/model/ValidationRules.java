@@ -0,0 +1,60 @@
+package model;
+
+/**
+ * Allocation-free checks shared by the model validators. Each method accepts and rejects
+ * exactly the same inputs as the expression it replaces.
+ */
+final class ValidationRules {
+
+    private ValidationRules() {}
+
+    /**
+     * Same result as {@code s == null || s.trim().isEmpty()} without creating a trimmed copy.
+     */
+    static boolean isBlank(String s) {
+        if (s == null) {
+            return true;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same result as {@code s != null && s.matches("^[A-Za-z0-9+_.-]+@(.+)$")}: a non-empty
+     * local part of letters, digits and {@code + _ . -}, an '@', then at least one character
+     * with no line terminators.
+     */
+    static boolean isValidEmail(String s) {
+        if (s == null) {
+            return false;
+        }
+        int length = s.length();
+        int at = 0;
+        while (at < length && isLocalPartChar(s.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at >= length - 1 || s.charAt(at) != '@') {
+            return false;
+        }
+        for (int i = at + 1; i < length; i++) {
+            if (isLineTerminator(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    // The line terminators that '.' does not match in java.util.regex without DOTALL
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,393 @@
+package repository;
+
+import model.Booking;
+import model.BookingStatus;
+import model.FlightBooking;
+import model.HotelBooking;
+import model.RoomType;
+import model.SeatClass;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal file behind {@link WriteBehindBookingRepository}.
+ * <p>
+ * Every record is framed as {@code [int length][payload][int crc32]}; the payload starts with
+ * a kind byte and a sequence number. BOOKING records carry a booking; a DRAINED record says
+ * every booking up to its sequence number is in the database. Opening the journal reads it
+ * back, cuts off a torn or corrupt tail, and keeps the bookings that were never drained.
+ * {@link #compact} rewrites the file with only the bookings still waiting, so it stays small
+ * under steady intake.
+ * <p>
+ * Durability uses group commit: whichever waiting thread finds no sync in progress calls
+ * {@link FileChannel#force} for everything written so far, and the threads that arrived
+ * meanwhile are released by that same sync instead of issuing one each.
+ */
+class BookingJournal implements AutoCloseable {
+    private static final byte BOOKING = 1;
+    private static final byte DRAINED = 2;
+    private static final byte FLIGHT = 'F';
+    private static final byte HOTEL = 'H';
+    private static final int MAX_RECORD_BYTES = 1 << 16;
+
+    static final class Entry {
+        final long seq;
+        final Booking booking;
+        final boolean recovered;
+
+        Entry(long seq, Booking booking, boolean recovered) {
+            this.seq = seq;
+            this.booking = booking;
+            this.recovered = recovered;
+        }
+    }
+
+    private final Path file;
+    // Replaced by compact, which holds both locks and waits out any sync in progress
+    private volatile FileChannel channel;
+    private final List<Entry> recovered = new ArrayList<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private long nextSeq = 1;
+    private long filePosition;
+    // Logical byte counts that survive compaction, so waiters can compare positions across it
+    private volatile long written;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private long durable;
+    private boolean syncing;
+
+    private final LongAdder syncs = new LongAdder();
+
+    BookingJournal(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Bookings appended before the last shutdown or crash that were never marked drained, in
+     * sequence order.
+     */
+    List<Entry> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Writes one BOOKING record per booking in a single write. The records are not durable
+     * until {@link #awaitDurable} returns for the position stored in {@code positionOut[0]}.
+     */
+    List<Entry> append(List<Booking> bookings, long[] positionOut) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(bookings.size() * 96);
+        appendLock.lock();
+        try {
+            List<Entry> entries = new ArrayList<>(bookings.size());
+            long seq = nextSeq;
+            for (Booking booking : bookings) {
+                writeFrame(bytes, encodeBooking(seq, booking));
+                entries.add(new Entry(seq++, booking, false));
+            }
+            write(ByteBuffer.wrap(bytes.toByteArray()));
+            nextSeq = seq;
+            positionOut[0] = written;
+            return entries;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Records that every booking with a sequence number up to {@code seq} is in the database.
+     * Not synced on its own: a lost marker only means those bookings are checked again on replay.
+     */
+    void markDrained(long seq) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24);
+        writeFrame(bytes, header(DRAINED, seq).toByteArray());
+        appendLock.lock();
+        try {
+            write(ByteBuffer.wrap(bytes.toByteArray()));
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until everything up to the given logical position has been forced to disk.
+     */
+    void awaitDurable(long position) throws IOException {
+        syncLock.lock();
+        try {
+            while (durable < position) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = written;
+                FileChannel syncChannel = channel;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    syncChannel.force(false);
+                    syncs.increment();
+                    forced = true;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        durable = Math.max(durable, target);
+                    }
+                    syncDone.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the file with a DRAINED marker for {@code drainedSeq} followed by {@code undrained},
+     * written to a side file, synced and renamed over the journal. The caller guarantees that
+     * these are all the bookings in the journal still waiting for the database, in sequence order,
+     * and that nothing is appended meanwhile. Everything appended so far is durable afterwards.
+     */
+    void compact(long drainedSeq, List<Entry> undrained) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        appendLock.lock();
+        try {
+            long length = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+                writeFrame(bytes, header(DRAINED, drainedSeq).toByteArray());
+                for (Entry entry : undrained) {
+                    writeFrame(bytes, encodeBooking(entry.seq, entry.booking));
+                    if (bytes.size() >= 1 << 16) {
+                        length += writeFully(out, bytes);
+                    }
+                }
+                length += writeFully(out, bytes);
+                out.force(true);
+            }
+
+            syncLock.lock();
+            try {
+                while (syncing) {
+                    syncDone.awaitUninterruptibly();
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                syncDirectory();
+                FileChannel previous = channel;
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                previous.close();
+                filePosition = length;
+                durable = written;
+                syncDone.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    long size() {
+        return filePosition;
+    }
+
+    long getSyncCount() {
+        return syncs.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static long writeFully(FileChannel out, ByteArrayOutputStream bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        bytes.reset();
+        return length;
+    }
+
+    // Makes the rename itself durable; not every platform can open a directory, so best effort
+    private void syncDirectory() {
+        Path dir = file.toAbsolutePath().getParent();
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // The rename is still atomic, just not yet forced
+        }
+    }
+
+    // Caller holds appendLock
+    private void write(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            filePosition += channel.write(buffer, filePosition);
+        }
+        written += length;
+    }
+
+    private void recover() throws IOException {
+        // Bookings are in sequence order, so each DRAINED marker releases a prefix
+        Deque<Entry> undrained = new ArrayDeque<>();
+        long lastDrained = 0;
+        long maxSeq = 0;
+        long goodLength = 0;
+        CRC32 crc = new CRC32();
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1 << 16);
+        DataInputStream data = new DataInputStream(in);
+        while (true) {
+            byte[] payload;
+            try {
+                int length = data.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                payload = new byte[length];
+                data.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != data.readInt()) {
+                    break;
+                }
+                goodLength += 8 + length;
+            } catch (EOFException tornTail) {
+                break;
+            }
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+            byte kind = record.readByte();
+            long seq = record.readLong();
+            maxSeq = Math.max(maxSeq, seq);
+            if (kind == DRAINED) {
+                lastDrained = Math.max(lastDrained, seq);
+                while (!undrained.isEmpty() && undrained.peekFirst().seq <= lastDrained) {
+                    undrained.pollFirst();
+                }
+            } else if (kind == BOOKING && seq > lastDrained) {
+                undrained.add(new Entry(seq, decodeBooking(record), true));
+            }
+        }
+        recovered.addAll(undrained);
+        if (goodLength < channel.size()) {
+            channel.truncate(goodLength);
+        }
+        filePosition = goodLength;
+        nextSeq = maxSeq + 1;
+    }
+
+    private static void writeFrame(ByteArrayOutputStream out, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        writeInt(out, payload.length);
+        out.write(payload, 0, payload.length);
+        writeInt(out, (int) crc.getValue());
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static ByteArrayOutputStream header(byte kind, long seq) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(kind);
+            out.writeLong(seq);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes;
+    }
+
+    private static byte[] encodeBooking(long seq, Booking booking) {
+        ByteArrayOutputStream bytes = header(BOOKING, seq);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (booking instanceof FlightBooking) {
+                FlightBooking fb = (FlightBooking) booking;
+                out.writeByte(FLIGHT);
+                writeCommon(out, booking);
+                out.writeUTF(fb.getFlightNumber());
+                out.writeUTF(fb.getOrigin());
+                out.writeUTF(fb.getDestination());
+                out.writeUTF(fb.getSeatClass().name());
+            } else if (booking instanceof HotelBooking) {
+                HotelBooking hb = (HotelBooking) booking;
+                out.writeByte(HOTEL);
+                writeCommon(out, booking);
+                out.writeUTF(hb.getHotelName());
+                out.writeUTF(hb.getRoomType().name());
+                out.writeInt(hb.getNights());
+            } else {
+                throw new IllegalArgumentException("Unknown booking type");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (bytes.size() > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Booking is too large to journal");
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeCommon(DataOutputStream out, Booking booking) throws IOException {
+        out.writeLong(booking.getBookingDate().toEpochDay());
+        out.writeDouble(booking.getTotalPrice());
+        out.writeUTF(booking.getStatus().name());
+        out.writeInt(booking.getCustomerId());
+    }
+
+    private static Booking decodeBooking(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        double price = in.readDouble();
+        BookingStatus status = BookingStatus.valueOf(in.readUTF());
+        int customerId = in.readInt();
+        if (type == FLIGHT) {
+            return new FlightBooking(0, date, price, status, customerId,
+                    in.readUTF(), in.readUTF(), in.readUTF(), SeatClass.valueOf(in.readUTF()));
+        }
+        if (type == HOTEL) {
+            return new HotelBooking(0, date, price, status, customerId,
+                    in.readUTF(), RoomType.valueOf(in.readUTF()), in.readInt());
+        }
+        throw new IOException("Unknown booking type in journal: " + type);
+    }
+}
@@ -0,0 +1,42 @@
+package repository;
+
+import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.BookingRepositoryInterface;
+
+import java.util.List;
+import java.util.Set;
+
+public class CachingBookingRepository extends CachingRepository<Booking> implements BookingRepositoryInterface {
+    private final BookingRepositoryInterface bookings;
+
+    public CachingBookingRepository(BookingRepositoryInterface delegate, int maxEntries, long ttlMillis) {
+        super(delegate, InMemoryBookingRepository::copy, maxEntries, ttlMillis);
+        this.bookings = delegate;
+    }
+
+    @Override
+    public BatchResult<Booking> createAll(List<Booking> entities) {
+        return bookings.createAll(entities);
+    }
+
+    @Override
+    public boolean existsSimilar(Booking booking) {
+        return bookings.existsSimilar(booking);
+    }
+
+    @Override
+    public List<Booking> findTopByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        return bookings.findTopByPrice(limit, descending, status, type);
+    }
+
+    @Override
+    public void transitionStatus(int id, Set<BookingStatus> expected, BookingStatus target) {
+        try {
+            bookings.transitionStatus(id, expected, target);
+        } finally {
+            invalidate(id);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package repository;
+
+import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.CustomerRepositoryInterface;
+
+import java.util.List;
+import java.util.Optional;
+
+public class CachingCustomerRepository extends CachingRepository<Customer> implements CustomerRepositoryInterface {
+    private final CustomerRepositoryInterface customers;
+
+    public CachingCustomerRepository(CustomerRepositoryInterface delegate, int maxEntries, long ttlMillis) {
+        super(delegate, InMemoryCustomerRepository::copy, maxEntries, ttlMillis);
+        this.customers = delegate;
+    }
+
+    @Override
+    public BatchResult<Customer> createAll(List<Customer> entities) {
+        return customers.createAll(entities);
+    }
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        return customers.findByEmail(email);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return customers.existsByEmail(email);
+    }
+}
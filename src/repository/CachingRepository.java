@@ -0,0 +1,195 @@
+package repository;
+
+import repository.interfaces.CrudRepository;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache in front of any {@link CrudRepository}. getById results are kept in a
+ * size-bounded LRU map with a time-to-live; update and delete invalidate the entry after
+ * writing through to the delegate. List and page reads are not cached.
+ * <p>
+ * The cache keeps its own copy of each entity and hands every caller a fresh copy, so callers
+ * can modify what they get back without affecting the cache or each other, as with the
+ * in-memory and JDBC repositories.
+ */
+public class CachingRepository<T> implements CrudRepository<T> {
+    protected final CrudRepository<T> delegate;
+    private final UnaryOperator<T> copy;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Map<Integer, CacheEntry<T>> entries;
+    // Bumped on every invalidation so that a load racing with a write never caches a stale value
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param copy returns an independent copy of an entity
+     */
+    public CachingRepository(CrudRepository<T> delegate, UnaryOperator<T> copy, int maxEntries, long ttlMillis) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (copy == null) {
+            throw new IllegalArgumentException("Copy function cannot be null");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache TTL must be greater than 0");
+        }
+        this.delegate = delegate;
+        this.copy = copy;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<Integer, CacheEntry<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry<T>> eldest) {
+                if (size() > CachingRepository.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void create(T entity) {
+        delegate.create(entity);
+    }
+
+    @Override
+    public List<T> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Page<T> getPage(PageRequest request) {
+        return delegate.getPage(request);
+    }
+
+    @Override
+    public T getById(int id) {
+        long now = System.nanoTime();
+        T value = null;
+        synchronized (entries) {
+            CacheEntry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    value = entry.value;
+                } else {
+                    entries.remove(id);
+                    expirations.increment();
+                }
+            }
+        }
+        if (value != null) {
+            return copy.apply(value);
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        T loaded = delegate.getById(id);
+        if (loaded != null) {
+            T cached = copy.apply(loaded);
+            synchronized (entries) {
+                if (generation.get() == loadGeneration) {
+                    entries.put(id, new CacheEntry<>(cached, now));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public void update(int id, T entity) {
+        try {
+            delegate.update(id, entity);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    public void invalidate(int id) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachingRepository[size=%d, hits=%d, misses=%d, evictions=%d, expirations=%d, hitRate=%.2f]",
+                size(), getHits(), getMisses(), getEvictions(), getExpirations(), getHitRate());
+    }
+
+    private static class CacheEntry<T> {
+        private final T value;
+        private final long loadedAt;
+
+        CacheEntry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
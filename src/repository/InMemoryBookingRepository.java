@@ -0,0 +1,339 @@
+package repository;
+
+import exception.ResourceNotFoundException;
+import exception.StatusConflictException;
+import model.Booking;
+import model.BookingStatus;
+import model.FlightBooking;
+import model.HotelBooking;
+import repository.interfaces.BatchResult;
+import repository.interfaces.BookingRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import utils.SortingUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent in-memory {@link BookingRepositoryInterface}, for deployments and benchmarks that
+ * run without PostgreSQL or as a hot tier in front of it.
+ * <p>
+ * Rows live in a {@link ConcurrentHashMap} keyed by id, with an ordered id set for keyset
+ * pages and secondary indexes on customer id and status. Writes to the same id are
+ * serialised on a lock stripe so a row and its index entries always change together; reads
+ * take no locks and re-check index hits against the row.
+ * <p>
+ * Bookings are stored and returned as copies (marked clean, as if loaded), so - as with the JDBC
+ * repository - changing a returned object has no effect until it is passed to {@link #update}. Foreign keys to
+ * customers are not enforced.
+ */
+public class InMemoryBookingRepository implements BookingRepositoryInterface {
+    private static final int STRIPES = 64;
+
+    private final Map<Integer, Booking> rows = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Integer> ids = new ConcurrentSkipListSet<>();
+    private final Map<Integer, Set<Integer>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<BookingStatus, Set<Integer>> byStatus = new EnumMap<>(BookingStatus.class);
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Object[] locks = new Object[STRIPES];
+
+    public InMemoryBookingRepository() {
+        for (BookingStatus status : BookingStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void create(Booking booking) {
+        Booking row = copy(booking);
+        int id = sequence.incrementAndGet();
+        row.setId(id);
+        synchronized (lockFor(id)) {
+            rows.put(id, row);
+            index(row);
+            ids.add(id);
+        }
+        booking.setId(id);
+        booking.markClean();
+    }
+
+    @Override
+    public BatchResult<Booking> createAll(List<Booking> bookings) {
+        List<Booking> created = new ArrayList<>(bookings.size());
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            try {
+                create(bookings.get(i));
+                created.add(bookings.get(i));
+            } catch (RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        return new BatchResult<>(created, failures);
+    }
+
+    @Override
+    public List<Booking> getAll() {
+        List<Booking> list = new ArrayList<>(rows.size());
+        for (Integer id : ids) {
+            Booking row = rows.get(id);
+            if (row != null) {
+                list.add(copy(row));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public Page<Booking> getPage(PageRequest request) {
+        List<Booking> items = new ArrayList<>(request.getSize());
+        boolean hasNext = false;
+        for (Integer id : ids.tailSet(request.getAfterId(), false)) {
+            Booking row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            if (items.size() == request.getSize()) {
+                hasNext = true;
+                break;
+            }
+            items.add(copy(row));
+        }
+        int cursor = items.isEmpty() ? request.getAfterId() : items.get(items.size() - 1).getId();
+        return new Page<>(items, cursor, hasNext, request.isIncludeTotal() ? rows.size() : Page.UNKNOWN_TOTAL);
+    }
+
+    @Override
+    public Booking getById(int id) {
+        Booking row = rows.get(id);
+        if (row == null) {
+            throw new ResourceNotFoundException("Booking", id);
+        }
+        return copy(row);
+    }
+
+    /**
+     * Bookings of one customer in id order, served from the customer index.
+     */
+    public List<Booking> findByCustomerId(int customerId) {
+        return collect(byCustomer.getOrDefault(customerId, Collections.emptySet()), customerId, null);
+    }
+
+    /**
+     * Bookings in the given status in id order, served from the status index.
+     */
+    public List<Booking> findByStatus(BookingStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        return collect(byStatus.get(status), 0, status);
+    }
+
+    @Override
+    public boolean existsSimilar(Booking booking) {
+        for (Integer id : byCustomer.getOrDefault(booking.getCustomerId(), Collections.emptySet())) {
+            Booking other = rows.get(id);
+            if (other != null && other.getId() != booking.getId() && isSimilar(booking, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The duplicate rule of {@link BookingRepository#existsSimilar}, apart from its id check:
+     * same customer, date, type and flight number or hotel name, and {@code other} not cancelled.
+     */
+    static boolean isSimilar(Booking booking, Booking other) {
+        return other.getCustomerId() == booking.getCustomerId()
+                && other.getStatus() != BookingStatus.CANCELLED
+                && other.getBookingDate().equals(booking.getBookingDate())
+                && other.getBookingType().equals(booking.getBookingType())
+                && key(booking).equals(key(other));
+    }
+
+    @Override
+    public List<Booking> findTopByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        List<Booking> candidates = new ArrayList<>();
+        Iterable<Integer> scan = status == null ? ids : byStatus.get(status);
+        for (Integer id : scan) {
+            Booking row = rows.get(id);
+            if (row != null && (status == null || row.getStatus() == status)
+                    && (type == null || row.getBookingType().equals(type))) {
+                candidates.add(row);
+            }
+        }
+        List<Booking> top = SortingUtils.topKByPrice(candidates, limit, descending);
+        top.replaceAll(InMemoryBookingRepository::copy);
+        return top;
+    }
+
+    @Override
+    public void transitionStatus(int id, Set<BookingStatus> expected, BookingStatus target) {
+        synchronized (lockFor(id)) {
+            Booking row = rows.get(id);
+            if (row == null) {
+                throw new ResourceNotFoundException("Booking", id);
+            }
+            if (!expected.contains(row.getStatus())) {
+                throw new StatusConflictException("Booking", id, row.getStatus().name(), target.name());
+            }
+            Booking updated = copy(row);
+            updated.setStatus(target);
+            byStatus.get(row.getStatus()).remove(id);
+            rows.put(id, updated);
+            byStatus.get(target).add(id);
+        }
+    }
+
+    /**
+     * Applies the fields marked dirty on {@code booking} to the stored row, like the column-wise
+     * update of {@link BookingRepository#update}.
+     *
+     * @throws ResourceNotFoundException if no booking (or no booking of this type) has the id
+     */
+    @Override
+    public void update(int id, Booking booking) {
+        if (booking.getDirtyFields() == 0) {
+            if (!rows.containsKey(id)) {
+                throw new ResourceNotFoundException("Booking", id);
+            }
+            return;
+        }
+        synchronized (lockFor(id)) {
+            Booking previous = rows.get(id);
+            if (previous == null) {
+                throw new ResourceNotFoundException("Booking", id);
+            }
+            Booking row = merge(previous, booking);
+            unindex(previous);
+            rows.put(id, row);
+            index(row);
+        }
+        booking.markClean();
+    }
+
+    private static Booking merge(Booking stored, Booking changes) {
+        int dirty = changes.getDirtyFields();
+        LocalDate date = (dirty & Booking.BOOKING_DATE) != 0 ? changes.getBookingDate() : stored.getBookingDate();
+        double price = (dirty & Booking.TOTAL_PRICE) != 0 ? changes.getTotalPrice() : stored.getTotalPrice();
+        BookingStatus status = (dirty & Booking.STATUS) != 0 ? changes.getStatus() : stored.getStatus();
+        int customerId = (dirty & Booking.CUSTOMER_ID) != 0 ? changes.getCustomerId() : stored.getCustomerId();
+        boolean childDirty = (dirty & ~(Booking.BOOKING_DATE | Booking.TOTAL_PRICE | Booking.STATUS | Booking.CUSTOMER_ID)) != 0;
+        if (childDirty && stored.getClass() != changes.getClass()) {
+            throw new ResourceNotFoundException(changes.getClass().getSimpleName(), stored.getId());
+        }
+
+        Booking merged;
+        if (stored instanceof FlightBooking) {
+            FlightBooking s = (FlightBooking) stored;
+            FlightBooking c = childDirty ? (FlightBooking) changes : s;
+            merged = new FlightBooking(stored.getId(), date, price, status, customerId,
+                    (dirty & FlightBooking.FLIGHT_NUMBER) != 0 ? c.getFlightNumber() : s.getFlightNumber(),
+                    (dirty & FlightBooking.ORIGIN) != 0 ? c.getOrigin() : s.getOrigin(),
+                    (dirty & FlightBooking.DESTINATION) != 0 ? c.getDestination() : s.getDestination(),
+                    (dirty & FlightBooking.SEAT_CLASS) != 0 ? c.getSeatClass() : s.getSeatClass());
+        } else {
+            HotelBooking s = (HotelBooking) stored;
+            HotelBooking c = childDirty ? (HotelBooking) changes : s;
+            merged = new HotelBooking(stored.getId(), date, price, status, customerId,
+                    (dirty & HotelBooking.HOTEL_NAME) != 0 ? c.getHotelName() : s.getHotelName(),
+                    (dirty & HotelBooking.ROOM_TYPE) != 0 ? c.getRoomType() : s.getRoomType(),
+                    (dirty & HotelBooking.NIGHTS) != 0 ? c.getNights() : s.getNights());
+        }
+        merged.markClean();
+        return merged;
+    }
+
+    @Override
+    public void delete(int id) {
+        synchronized (lockFor(id)) {
+            Booking removed = rows.remove(id);
+            if (removed != null) {
+                ids.remove(id);
+                unindex(removed);
+            }
+        }
+    }
+
+    private List<Booking> collect(Set<Integer> index, int customerId, BookingStatus status) {
+        List<Integer> matching = new ArrayList<>(index);
+        Collections.sort(matching);
+        List<Booking> list = new ArrayList<>(matching.size());
+        for (Integer id : matching) {
+            Booking row = rows.get(id);
+            // Index sets are updated under the stripe lock but read without it
+            if (row != null && (status == null ? row.getCustomerId() == customerId : row.getStatus() == status)) {
+                list.add(copy(row));
+            }
+        }
+        return list;
+    }
+
+    private void index(Booking row) {
+        // Add inside compute: a set returned by computeIfAbsent may be dropped by a concurrent
+        // unindex of the customer's last booking before the id lands in it
+        byCustomer.compute(row.getCustomerId(), (k, set) -> {
+            Set<Integer> ids = set == null ? ConcurrentHashMap.newKeySet() : set;
+            ids.add(row.getId());
+            return ids;
+        });
+        byStatus.get(row.getStatus()).add(row.getId());
+    }
+
+    private void unindex(Booking row) {
+        byCustomer.computeIfPresent(row.getCustomerId(), (k, set) -> {
+            set.remove(row.getId());
+            return set.isEmpty() ? null : set;
+        });
+        byStatus.get(row.getStatus()).remove(row.getId());
+    }
+
+    private Object lockFor(int id) {
+        return locks[id & (STRIPES - 1)];
+    }
+
+    private static String key(Booking booking) {
+        if (booking instanceof FlightBooking) {
+            return ((FlightBooking) booking).getFlightNumber();
+        }
+        if (booking instanceof HotelBooking) {
+            return ((HotelBooking) booking).getHotelName();
+        }
+        throw new IllegalArgumentException("Unknown booking type");
+    }
+
+    static Booking copy(Booking b) {
+        if (b instanceof FlightBooking) {
+            FlightBooking fb = (FlightBooking) b;
+            FlightBooking copy = new FlightBooking(b.getId(), b.getBookingDate(), b.getTotalPrice(), b.getStatus(), b.getCustomerId(),
+                    fb.getFlightNumber(), fb.getOrigin(), fb.getDestination(), fb.getSeatClass());
+            copy.markClean();
+            return copy;
+        }
+        if (b instanceof HotelBooking) {
+            HotelBooking hb = (HotelBooking) b;
+            HotelBooking copy = new HotelBooking(b.getId(), b.getBookingDate(), b.getTotalPrice(), b.getStatus(), b.getCustomerId(),
+                    hb.getHotelName(), hb.getRoomType(), hb.getNights());
+            copy.markClean();
+            return copy;
+        }
+        throw new IllegalArgumentException("Unknown booking type");
+    }
+}
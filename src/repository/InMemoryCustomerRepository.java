@@ -0,0 +1,187 @@
+package repository;
+
+import exception.DuplicateResourceException;
+import exception.ResourceNotFoundException;
+import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.CustomerRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent in-memory {@link CustomerRepositoryInterface} with the same unique-email rule as
+ * the customers table: create and update throw {@link DuplicateResourceException} when another
+ * customer already holds the email. The email index doubles as the uniqueness constraint -
+ * a write claims the email with {@code putIfAbsent} before the row becomes visible.
+ * <p>
+ * Like {@link CustomerRepository}, getById returns null for an unknown id. Customers are
+ * stored and returned as copies, marked clean as if loaded.
+ */
+public class InMemoryCustomerRepository implements CustomerRepositoryInterface {
+    private static final int STRIPES = 64;
+
+    private final Map<Integer, Customer> rows = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Integer> ids = new ConcurrentSkipListSet<>();
+    private final Map<String, Integer> byEmail = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Object[] locks = new Object[STRIPES];
+
+    public InMemoryCustomerRepository() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void create(Customer customer) {
+        int id = sequence.incrementAndGet();
+        claimEmail(customer.getEmail(), id);
+        Customer row = copy(customer);
+        row.setId(id);
+        synchronized (lockFor(id)) {
+            rows.put(id, row);
+            ids.add(id);
+        }
+        customer.setId(id);
+        customer.markClean();
+    }
+
+    @Override
+    public BatchResult<Customer> createAll(List<Customer> customers) {
+        List<Customer> created = new ArrayList<>(customers.size());
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        for (int i = 0; i < customers.size(); i++) {
+            try {
+                create(customers.get(i));
+                created.add(customers.get(i));
+            } catch (RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        return new BatchResult<>(created, failures);
+    }
+
+    @Override
+    public List<Customer> getAll() {
+        List<Customer> list = new ArrayList<>(rows.size());
+        for (Integer id : ids) {
+            Customer row = rows.get(id);
+            if (row != null) {
+                list.add(copy(row));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public Page<Customer> getPage(PageRequest request) {
+        List<Customer> items = new ArrayList<>(request.getSize());
+        boolean hasNext = false;
+        for (Integer id : ids.tailSet(request.getAfterId(), false)) {
+            Customer row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            if (items.size() == request.getSize()) {
+                hasNext = true;
+                break;
+            }
+            items.add(copy(row));
+        }
+        int cursor = items.isEmpty() ? request.getAfterId() : items.get(items.size() - 1).getId();
+        return new Page<>(items, cursor, hasNext, request.isIncludeTotal() ? rows.size() : Page.UNKNOWN_TOTAL);
+    }
+
+    @Override
+    public Customer getById(int id) {
+        Customer row = rows.get(id);
+        return row == null ? null : copy(row);
+    }
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        Integer id = byEmail.get(email);
+        Customer row = id == null ? null : rows.get(id);
+        // A claimed email whose row is not yet (or no longer) visible counts as absent
+        return row == null || !row.getEmail().equals(email) ? Optional.empty() : Optional.of(copy(row));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+
+    /**
+     * Applies the fields marked dirty on {@code customer} to the stored row, like the column-wise
+     * update of {@link CustomerRepository#update}.
+     *
+     * @throws ResourceNotFoundException if no customer has the id
+     */
+    @Override
+    public void update(int id, Customer customer) {
+        int dirty = customer.getDirtyFields();
+        if (dirty != 0) {
+            synchronized (lockFor(id)) {
+                Customer previous = rows.get(id);
+                if (previous == null) {
+                    throw new ResourceNotFoundException("Customer", id);
+                }
+                Customer row = new Customer(id,
+                        (dirty & Customer.NAME) != 0 ? customer.getName() : previous.getName(),
+                        (dirty & Customer.EMAIL) != 0 ? customer.getEmail() : previous.getEmail(),
+                        (dirty & Customer.PHONE) != 0 ? customer.getPhone() : previous.getPhone(),
+                        (dirty & Customer.PASSPORT_NUMBER) != 0 ? customer.getPassportNumber() : previous.getPassportNumber());
+                row.markClean();
+                boolean emailChanged = !previous.getEmail().equals(row.getEmail());
+                if (emailChanged) {
+                    claimEmail(row.getEmail(), id);
+                }
+                rows.put(id, row);
+                if (emailChanged) {
+                    byEmail.remove(previous.getEmail(), id);
+                }
+            }
+        } else if (!rows.containsKey(id)) {
+            throw new ResourceNotFoundException("Customer", id);
+        }
+        customer.setId(id);
+        customer.markClean();
+    }
+
+    @Override
+    public void delete(int id) {
+        synchronized (lockFor(id)) {
+            Customer removed = rows.remove(id);
+            if (removed != null) {
+                ids.remove(id);
+                byEmail.remove(removed.getEmail(), id);
+            }
+        }
+    }
+
+    private void claimEmail(String email, int id) {
+        Integer holder = byEmail.putIfAbsent(email, id);
+        if (holder != null && holder != id) {
+            throw new DuplicateResourceException("Customer", "email: " + email);
+        }
+    }
+
+    private Object lockFor(int id) {
+        return locks[id & (STRIPES - 1)];
+    }
+
+    static Customer copy(Customer c) {
+        Customer copy = new Customer(c.getId(), c.getName(), c.getEmail(), c.getPhone(), c.getPassportNumber());
+        copy.markClean();
+        return copy;
+    }
+}
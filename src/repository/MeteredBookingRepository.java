@@ -0,0 +1,80 @@
+package repository;
+
+import metrics.Timer;
+import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.BookingRepositoryInterface;
+
+import java.util.List;
+import java.util.Set;
+
+public class MeteredBookingRepository extends MeteredRepository<Booking> implements BookingRepositoryInterface {
+    private final BookingRepositoryInterface bookings;
+
+    private final Timer createAllTimer;
+    private final Timer existsSimilarTimer;
+    private final Timer findTopByPriceTimer;
+    private final Timer transitionStatusTimer;
+
+    public MeteredBookingRepository(BookingRepositoryInterface delegate) {
+        super(delegate, "Booking");
+        this.bookings = delegate;
+        this.createAllTimer = timer(entity, "createAll");
+        this.existsSimilarTimer = timer(entity, "existsSimilar");
+        this.findTopByPriceTimer = timer(entity, "findTopByPrice");
+        this.transitionStatusTimer = timer(entity, "transitionStatus");
+    }
+
+    @Override
+    public BatchResult<Booking> createAll(List<Booking> entities) {
+        long start = System.nanoTime();
+        try {
+            return bookings.createAll(entities);
+        } catch (RuntimeException e) {
+            failed("createAll", e);
+            throw e;
+        } finally {
+            createAllTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean existsSimilar(Booking booking) {
+        long start = System.nanoTime();
+        try {
+            return bookings.existsSimilar(booking);
+        } catch (RuntimeException e) {
+            failed("existsSimilar", e);
+            throw e;
+        } finally {
+            existsSimilarTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Booking> findTopByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        long start = System.nanoTime();
+        try {
+            return bookings.findTopByPrice(limit, descending, status, type);
+        } catch (RuntimeException e) {
+            failed("findTopByPrice", e);
+            throw e;
+        } finally {
+            findTopByPriceTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void transitionStatus(int id, Set<BookingStatus> expected, BookingStatus target) {
+        long start = System.nanoTime();
+        try {
+            bookings.transitionStatus(id, expected, target);
+        } catch (RuntimeException e) {
+            failed("transitionStatus", e);
+            throw e;
+        } finally {
+            transitionStatusTimer.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package repository;
+
+import metrics.Timer;
+import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.CustomerRepositoryInterface;
+
+import java.util.List;
+import java.util.Optional;
+
+public class MeteredCustomerRepository extends MeteredRepository<Customer> implements CustomerRepositoryInterface {
+    private final CustomerRepositoryInterface customers;
+
+    private final Timer createAllTimer;
+    private final Timer findByEmailTimer;
+    private final Timer existsByEmailTimer;
+
+    public MeteredCustomerRepository(CustomerRepositoryInterface delegate) {
+        super(delegate, "Customer");
+        this.customers = delegate;
+        this.createAllTimer = timer(entity, "createAll");
+        this.findByEmailTimer = timer(entity, "findByEmail");
+        this.existsByEmailTimer = timer(entity, "existsByEmail");
+    }
+
+    @Override
+    public BatchResult<Customer> createAll(List<Customer> entities) {
+        long start = System.nanoTime();
+        try {
+            return customers.createAll(entities);
+        } catch (RuntimeException e) {
+            failed("createAll", e);
+            throw e;
+        } finally {
+            createAllTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        long start = System.nanoTime();
+        try {
+            return customers.findByEmail(email);
+        } catch (RuntimeException e) {
+            failed("findByEmail", e);
+            throw e;
+        } finally {
+            findByEmailTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        long start = System.nanoTime();
+        try {
+            return customers.existsByEmail(email);
+        } catch (RuntimeException e) {
+            failed("existsByEmail", e);
+            throw e;
+        } finally {
+            existsByEmailTimer.recordSince(start);
+        }
+    }
+}
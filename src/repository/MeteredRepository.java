@@ -0,0 +1,147 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import repository.interfaces.CrudRepository;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+
+import java.util.List;
+
+/**
+ * Times every call on a {@link CrudRepository} into
+ * {@code repository_operation_seconds{entity, operation}} and counts the exceptions it throws in
+ * {@code repository_exceptions_total{entity, operation, exception}}. A
+ * {@link DatabaseOperationException} is counted under the operation and entity it names, which
+ * are more specific than the call's ("create"/"FlightBooking" rather than "create"/"Booking").
+ * <p>
+ * Failed calls are timed too. Timers are resolved up front, so a call costs two
+ * {@code nanoTime()} reads and a histogram update.
+ */
+public class MeteredRepository<T> implements CrudRepository<T> {
+    static final String OPERATION_TIMER = "repository_operation_seconds";
+    static final String EXCEPTION_COUNTER = "repository_exceptions_total";
+
+    protected final CrudRepository<T> delegate;
+    protected final String entity;
+
+    private final Timer createTimer;
+    private final Timer getAllTimer;
+    private final Timer getPageTimer;
+    private final Timer getByIdTimer;
+    private final Timer updateTimer;
+    private final Timer deleteTimer;
+
+    public MeteredRepository(CrudRepository<T> delegate, String entity) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        this.delegate = delegate;
+        this.entity = entity;
+        this.createTimer = timer(entity, "create");
+        this.getAllTimer = timer(entity, "getAll");
+        this.getPageTimer = timer(entity, "getPage");
+        this.getByIdTimer = timer(entity, "getById");
+        this.updateTimer = timer(entity, "update");
+        this.deleteTimer = timer(entity, "delete");
+    }
+
+    @Override
+    public void create(T entity) {
+        long start = System.nanoTime();
+        try {
+            delegate.create(entity);
+        } catch (RuntimeException e) {
+            failed("create", e);
+            throw e;
+        } finally {
+            createTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<T> getAll() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAll();
+        } catch (RuntimeException e) {
+            failed("getAll", e);
+            throw e;
+        } finally {
+            getAllTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Page<T> getPage(PageRequest request) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPage(request);
+        } catch (RuntimeException e) {
+            failed("getPage", e);
+            throw e;
+        } finally {
+            getPageTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public T getById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getById(id);
+        } catch (RuntimeException e) {
+            failed("getById", e);
+            throw e;
+        } finally {
+            getByIdTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void update(int id, T entity) {
+        long start = System.nanoTime();
+        try {
+            delegate.update(id, entity);
+        } catch (RuntimeException e) {
+            failed("update", e);
+            throw e;
+        } finally {
+            updateTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        long start = System.nanoTime();
+        try {
+            delegate.delete(id);
+        } catch (RuntimeException e) {
+            failed("delete", e);
+            throw e;
+        } finally {
+            deleteTimer.recordSince(start);
+        }
+    }
+
+    protected static Timer timer(String entity, String operation) {
+        return MetricsRegistry.getDefault().timer(OPERATION_TIMER, "entity", entity, "operation", operation);
+    }
+
+    protected final void failed(String operation, RuntimeException e) {
+        String failedEntity = entity;
+        String failedOperation = operation;
+        if (e instanceof DatabaseOperationException) {
+            DatabaseOperationException dbe = (DatabaseOperationException) e;
+            if (dbe.getEntity() != null) {
+                failedEntity = dbe.getEntity();
+            }
+            if (dbe.getOperation() != null) {
+                failedOperation = dbe.getOperation();
+            }
+        }
+        MetricsRegistry.getDefault().counter(EXCEPTION_COUNTER, "entity", failedEntity,
+                "operation", failedOperation, "exception", e.getClass().getSimpleName()).increment();
+    }
+}
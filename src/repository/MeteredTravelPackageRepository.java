@@ -0,0 +1,97 @@
+package repository;
+
+import metrics.Timer;
+import model.BookingStatus;
+import model.PackageSummary;
+import model.TravelPackage;
+import repository.interfaces.BulkTransitionResult;
+import repository.interfaces.TravelPackageRepositoryInterface;
+
+import java.util.List;
+import java.util.Set;
+
+public class MeteredTravelPackageRepository extends MeteredRepository<TravelPackage>
+        implements TravelPackageRepositoryInterface {
+    private final TravelPackageRepositoryInterface packages;
+
+    private final Timer addBookingsTimer;
+    private final Timer removeBookingTimer;
+    private final Timer getSummaryTimer;
+    private final Timer getSummariesByCustomerTimer;
+    private final Timer transitionBookingsTimer;
+
+    public MeteredTravelPackageRepository(TravelPackageRepositoryInterface delegate) {
+        super(delegate, "TravelPackage");
+        this.packages = delegate;
+        this.addBookingsTimer = timer(entity, "addBookings");
+        this.removeBookingTimer = timer(entity, "removeBooking");
+        this.getSummaryTimer = timer(entity, "getSummary");
+        this.getSummariesByCustomerTimer = timer(entity, "getSummariesByCustomer");
+        this.transitionBookingsTimer = timer(entity, "transitionBookings");
+    }
+
+    @Override
+    public int addBookings(int packageId, List<Integer> bookingIds) {
+        long start = System.nanoTime();
+        try {
+            return packages.addBookings(packageId, bookingIds);
+        } catch (RuntimeException e) {
+            failed("addBookings", e);
+            throw e;
+        } finally {
+            addBookingsTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void removeBooking(int packageId, int bookingId) {
+        long start = System.nanoTime();
+        try {
+            packages.removeBooking(packageId, bookingId);
+        } catch (RuntimeException e) {
+            failed("removeBooking", e);
+            throw e;
+        } finally {
+            removeBookingTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public PackageSummary getSummary(int id) {
+        long start = System.nanoTime();
+        try {
+            return packages.getSummary(id);
+        } catch (RuntimeException e) {
+            failed("getSummary", e);
+            throw e;
+        } finally {
+            getSummaryTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<PackageSummary> getSummariesByCustomer(int customerId) {
+        long start = System.nanoTime();
+        try {
+            return packages.getSummariesByCustomer(customerId);
+        } catch (RuntimeException e) {
+            failed("getSummariesByCustomer", e);
+            throw e;
+        } finally {
+            getSummariesByCustomerTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public BulkTransitionResult transitionBookings(int packageId, Set<BookingStatus> expected, BookingStatus target) {
+        long start = System.nanoTime();
+        try {
+            return packages.transitionBookings(packageId, expected, target);
+        } catch (RuntimeException e) {
+            failed("transitionBookings", e);
+            throw e;
+        } finally {
+            transitionBookingsTimer.recordSince(start);
+        }
+    }
+}
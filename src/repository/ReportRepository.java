@@ -0,0 +1,211 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import model.BookingStatus;
+import model.CustomerActivity;
+import model.HotelOccupancy;
+import model.RevenueBreakdown;
+import model.RouteStats;
+import repository.interfaces.ReportRepositoryInterface;
+import utils.DatabaseConnection;
+import utils.SqlCatalog;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Reports as GROUP BY queries: the database aggregates and only one row per group comes back.
+ * Revenue reports read {@code revenue_rollup}, which holds one row per date, type and status, so
+ * their cost grows with the number of days rather than bookings; the other reports aggregate
+ * {@code v_all_bookings}. Date and status filters go into the WHERE clause so they can use the
+ * indexes; each combination of filters is a separate statement, built and registered once.
+ */
+public class ReportRepository implements ReportRepositoryInterface {
+    private static final Counter ROWS_MAPPED = MetricsRegistry.getDefault()
+            .counter("repository_rows_mapped_total", "entity", "Report");
+
+    // Filter bits; each report has one statement per combination of the filters it supports
+    private static final int FROM = 1;
+    private static final int TO = 2;
+    private static final int STATUS = 4;
+
+    // Groups emptied by deletes or status changes stay in the rollup with a zero count
+    private static final String[] REVENUE_BY_STATUS_SQL = revenueSql("revenueByStatus", "status", FROM | TO);
+    private static final String[] REVENUE_BY_TYPE_SQL = revenueSql("revenueByType", "type", FROM | TO | STATUS);
+    private static final String[] REVENUE_BY_DAY_SQL = revenueSql("revenueByDay", "booking_date", FROM | TO | STATUS);
+    private static final String TOP_CUSTOMERS_SQL = SqlCatalog.register("Report.topCustomers",
+            "SELECT customer_id, customer_name, customer_email, COUNT(*) AS booking_count, " +
+            "COALESCE(SUM(total_price) FILTER (WHERE status <> 'CANCELLED'), 0) AS total_spent " +
+            "FROM v_all_bookings GROUP BY customer_id, customer_name, customer_email " +
+            "ORDER BY booking_count DESC, customer_id LIMIT ?");
+    private static final String[] TOP_ROUTES_SQL = variants("topRoutes", true, STATUS, where ->
+            "SELECT origin, destination, COUNT(*) AS booking_count, SUM(total_price) AS revenue " +
+            "FROM v_all_bookings" + where +
+            " GROUP BY origin, destination ORDER BY booking_count DESC, revenue DESC, origin, destination LIMIT ?");
+    private static final String[] HOTEL_OCCUPANCY_SQL = variants("hotelOccupancy", true, FROM | TO | STATUS, where ->
+            "SELECT hotel_name, COUNT(*) AS booking_count, SUM(nights) AS nights, SUM(total_price) AS revenue " +
+            "FROM v_all_bookings" + where +
+            " GROUP BY hotel_name ORDER BY nights DESC, hotel_name");
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @Override
+    public List<RevenueBreakdown> revenueByStatus(LocalDate from, LocalDate to) {
+        return revenueBy(REVENUE_BY_STATUS_SQL, from, to, null);
+    }
+
+    @Override
+    public List<RevenueBreakdown> revenueByType(LocalDate from, LocalDate to, BookingStatus status) {
+        return revenueBy(REVENUE_BY_TYPE_SQL, from, to, status);
+    }
+
+    @Override
+    public List<RevenueBreakdown> revenueByDay(LocalDate from, LocalDate to, BookingStatus status) {
+        return revenueBy(REVENUE_BY_DAY_SQL, from, to, status);
+    }
+
+    private List<RevenueBreakdown> revenueBy(String[] sql, LocalDate from, LocalDate to, BookingStatus status) {
+        List<Object> params = new ArrayList<>();
+        int filters = bind(params, null, from, to, status);
+        return query("revenueBy", sql[filters], params, rs -> new RevenueBreakdown(
+                rs.getString("group_key"), rs.getLong("booking_count"), rs.getDouble("revenue")));
+    }
+
+    @Override
+    public List<CustomerActivity> topCustomers(int limit) {
+        List<Object> params = new ArrayList<>();
+        params.add(limit);
+        return query("topCustomers", TOP_CUSTOMERS_SQL, params, rs -> new CustomerActivity(
+                rs.getInt("customer_id"), rs.getString("customer_name"), rs.getString("customer_email"),
+                rs.getLong("booking_count"), rs.getDouble("total_spent")));
+    }
+
+    @Override
+    public List<RouteStats> topRoutes(int limit, BookingStatus status) {
+        List<Object> params = new ArrayList<>();
+        int filters = bind(params, "FLIGHT", null, null, status);
+        params.add(limit);
+        return query("topRoutes", TOP_ROUTES_SQL[filters], params, rs -> new RouteStats(
+                rs.getString("origin"), rs.getString("destination"), rs.getLong("booking_count"), rs.getDouble("revenue")));
+    }
+
+    @Override
+    public List<HotelOccupancy> hotelOccupancy(LocalDate from, LocalDate to, BookingStatus status) {
+        List<Object> params = new ArrayList<>();
+        int filters = bind(params, "HOTEL", from, to, status);
+        return query("hotelOccupancy", HOTEL_OCCUPANCY_SQL[filters], params, rs -> new HotelOccupancy(
+                rs.getString("hotel_name"), rs.getLong("booking_count"), rs.getLong("nights"), rs.getDouble("revenue")));
+    }
+
+    private static String[] revenueSql(String name, String column, int supported) {
+        return variants(name, false, supported, where ->
+                "SELECT " + column + " AS group_key, SUM(booking_count) AS booking_count, SUM(revenue) AS revenue " +
+                "FROM revenue_rollup" + where +
+                " GROUP BY " + column + " HAVING SUM(booking_count) > 0 ORDER BY " + column);
+    }
+
+    /**
+     * Builds and registers one statement per combination of the {@code supported} filters,
+     * indexed by the filter bits; e.g. {@code Report.topRoutes[status]}.
+     */
+    private static String[] variants(String name, boolean typed, int supported, Function<String, String> sql) {
+        String[] variants = new String[(FROM | TO | STATUS) + 1];
+        for (int filters = 0; filters < variants.length; filters++) {
+            if ((filters & ~supported) == 0) {
+                variants[filters] = SqlCatalog.register("Report." + name + filterNames(filters), sql.apply(where(typed, filters)));
+            }
+        }
+        return variants;
+    }
+
+    private static String filterNames(int filters) {
+        StringJoiner names = new StringJoiner(",", "[", "]").setEmptyValue("");
+        if ((filters & FROM) != 0) {
+            names.add("from");
+        }
+        if ((filters & TO) != 0) {
+            names.add("to");
+        }
+        if ((filters & STATUS) != 0) {
+            names.add("status");
+        }
+        return names.toString();
+    }
+
+    /**
+     * The WHERE clause for a type filter and the given filter bits, in the order {@link #bind} adds values.
+     */
+    private static String where(boolean typed, int filters) {
+        StringBuilder sql = new StringBuilder();
+        if (typed) {
+            sql.append(" AND type = ?");
+        }
+        if ((filters & FROM) != 0) {
+            sql.append(" AND booking_date >= ?");
+        }
+        if ((filters & TO) != 0) {
+            sql.append(" AND booking_date <= ?");
+        }
+        if ((filters & STATUS) != 0) {
+            sql.append(" AND status = ?");
+        }
+        return sql.length() == 0 ? "" : " WHERE" + sql.substring(4);
+    }
+
+    /**
+     * Adds the values of the non-null filters to {@code params}.
+     *
+     * @return the filter bits selecting the matching statement
+     */
+    private static int bind(List<Object> params, String type, LocalDate from, LocalDate to, BookingStatus status) {
+        int filters = 0;
+        if (type != null) {
+            params.add(type);
+        }
+        if (from != null) {
+            params.add(Date.valueOf(from));
+            filters |= FROM;
+        }
+        if (to != null) {
+            params.add(Date.valueOf(to));
+            filters |= TO;
+        }
+        if (status != null) {
+            params.add(status.name());
+            filters |= STATUS;
+        }
+        return filters;
+    }
+
+    private static <T> List<T> query(String operation, String sql, List<Object> params, RowMapper<T> mapper) {
+        List<T> rows = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+            ROWS_MAPPED.add(rows.size());
+        } catch (SQLException e) {
+            throw new DatabaseOperationException(operation, "Report", e);
+        }
+        return rows;
+    }
+}
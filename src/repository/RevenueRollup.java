@@ -0,0 +1,65 @@
+package repository;
+
+import utils.SqlCatalog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * SQL that keeps {@code revenue_rollup} (booking count and revenue per booking date, type and
+ * status) in step with {@code bookings}. Every booking write adds its delta in the same
+ * statement or transaction, computed from the rows as stored, so the rollup never sees a write
+ * that is later rolled back and never rounds differently from the bookings table.
+ */
+final class RevenueRollup {
+    private static final String ON_CONFLICT_ADD =
+            " ON CONFLICT (booking_date, type, status) DO UPDATE SET" +
+            " booking_count = revenue_rollup.booking_count + EXCLUDED.booking_count," +
+            " revenue = revenue_rollup.revenue + EXCLUDED.revenue";
+
+    // Rollup rows are upserted in key order so concurrent writers lock them in the same order
+    private static final String ADD_CREATED_SQL = SqlCatalog.register("RevenueRollup.addCreated",
+            "INSERT INTO revenue_rollup (booking_date, type, status, booking_count, revenue) " +
+            "SELECT booking_date, type, status, COUNT(*), SUM(total_price) FROM bookings WHERE id = ANY (?) " +
+            "GROUP BY booking_date, type, status ORDER BY booking_date, type, status" + ON_CONFLICT_ADD);
+
+    /**
+     * Subtracts {@code old_rows} and adds {@code new_rows}; both must be defined by earlier CTEs
+     * with booking_date, type, status and total_price columns.
+     */
+    static final String DELTA_CTE =
+            "delta AS (" +
+            "SELECT booking_date, type, status, -1 AS bookings, -total_price AS amount FROM old_rows " +
+            "UNION ALL SELECT booking_date, type, status, 1, total_price FROM new_rows)";
+
+    static final String APPLY_DELTA =
+            "INSERT INTO revenue_rollup (booking_date, type, status, booking_count, revenue) " +
+            "SELECT booking_date, type, status, SUM(bookings), SUM(amount) FROM delta " +
+            "GROUP BY booking_date, type, status ORDER BY booking_date, type, status" + ON_CONFLICT_ADD;
+
+    private RevenueRollup() {}
+
+    /**
+     * Wraps a booking write, given as CTEs defining {@code old_rows} and {@code new_rows}, into one
+     * statement that also applies the rollup delta. Its update count is the number of rollup
+     * rows touched, which is 0 exactly when the write matched no booking.
+     */
+    static String maintained(String rowsCtes) {
+        return "WITH " + rowsCtes + ", " + DELTA_CTE + " " + APPLY_DELTA;
+    }
+
+    /**
+     * Adds freshly inserted bookings to the rollup on the inserting transaction.
+     */
+    static void addCreated(Connection conn, int... ids) throws SQLException {
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        try (PreparedStatement ps = conn.prepareStatement(ADD_CREATED_SQL)) {
+            ps.setArray(1, conn.createArrayOf("bigint", boxed));
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintenance of {@code revenue_rollup}: a full rebuild from {@code bookings} and a check that
+ * lists the groups where the incrementally maintained totals have drifted from the bookings.
+ */
+public class RevenueRollupRepository {
+
+    private static final String AGGREGATE_BOOKINGS =
+            "SELECT booking_date, type, status, COUNT(*) AS booking_count, SUM(total_price) AS revenue " +
+            "FROM bookings GROUP BY booking_date, type, status";
+
+    // Rollup rows left at zero by deletes and transitions count as absent
+    private static final String CHECK_SQL =
+            "SELECT booking_date, type, status, " +
+            "COALESCE(r.booking_count, 0) AS rollup_count, COALESCE(r.revenue, 0) AS rollup_revenue, " +
+            "COALESCE(a.booking_count, 0) AS actual_count, COALESCE(a.revenue, 0) AS actual_revenue " +
+            "FROM revenue_rollup r FULL JOIN (" + AGGREGATE_BOOKINGS + ") a USING (booking_date, type, status) " +
+            "WHERE COALESCE(r.booking_count, 0) <> COALESCE(a.booking_count, 0) " +
+            "OR COALESCE(r.revenue, 0) <> COALESCE(a.revenue, 0) " +
+            "ORDER BY booking_date, type, status";
+
+    /**
+     * Recomputes the rollup from scratch. Booking writes wait while it runs, so none of their
+     * deltas can be lost between the delete and the insert.
+     *
+     * @return the number of rollup rows written
+     */
+    public int rebuild() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                st.execute("LOCK TABLE bookings IN SHARE MODE");
+                st.executeUpdate("DELETE FROM revenue_rollup");
+                int rows = st.executeUpdate("INSERT INTO revenue_rollup (booking_date, type, status, booking_count, revenue) "
+                        + AGGREGATE_BOOKINGS);
+                conn.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("rebuild", "RevenueRollup", e);
+        }
+    }
+
+    /**
+     * Compares the rollup with a fresh aggregate of the bookings.
+     *
+     * @return one line per mismatching group; empty when the rollup is consistent
+     */
+    public List<String> check() {
+        List<String> mismatches = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(CHECK_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                mismatches.add(String.format("%s %s %s: rollup %d / %s, bookings %d / %s",
+                        rs.getDate("booking_date"), rs.getString("type"), rs.getString("status"),
+                        rs.getLong("rollup_count"), rs.getBigDecimal("rollup_revenue").toPlainString(),
+                        rs.getLong("actual_count"), rs.getBigDecimal("actual_revenue").toPlainString()));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("check", "RevenueRollup", e);
+        }
+        return mismatches;
+    }
+
+    /**
+     * Usage: {@code java repository.RevenueRollupRepository check|rebuild}
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 || !(args[0].equals("check") || args[0].equals("rebuild"))) {
+            System.err.println("Usage: RevenueRollupRepository check|rebuild");
+            return;
+        }
+        RevenueRollupRepository repository = new RevenueRollupRepository();
+        try {
+            if (args[0].equals("rebuild")) {
+                System.out.println("Rebuilt revenue rollup: " + repository.rebuild() + " rows");
+                return;
+            }
+            List<String> mismatches = repository.check();
+            mismatches.forEach(System.out::println);
+            System.out.println(mismatches.isEmpty() ? "Revenue rollup is consistent"
+                    : mismatches.size() + " mismatching groups; run 'rebuild' to repair");
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+}
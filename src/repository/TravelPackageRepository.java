@@ -0,0 +1,420 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.ResourceNotFoundException;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import model.Booking;
+import model.BookingStatus;
+import model.PackageSummary;
+import model.TravelPackage;
+import repository.interfaces.BulkTransitionResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import repository.interfaces.TravelPackageRepositoryInterface;
+import utils.DatabaseConnection;
+import utils.SqlCatalog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Travel packages with their bookings. A package is read together with all of its flight and
+ * hotel bookings in one joined query (one row per booking), and totals come from
+ * {@code v_packages_summary} rather than from loading the bookings.
+ */
+public class TravelPackageRepository implements TravelPackageRepositoryInterface {
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+    private static final Counter ROWS_MAPPED = MetricsRegistry.getDefault()
+            .counter("repository_rows_mapped_total", "entity", "TravelPackage");
+
+    private static final String INSERT_PACKAGE_SQL = SqlCatalog.register("TravelPackage.insert",
+            "INSERT INTO travel_packages (name, customer_id, discount_percentage) VALUES (?, ?, ?)");
+    private static final String UPDATE_PACKAGE_SQL = SqlCatalog.register("TravelPackage.update",
+            "UPDATE travel_packages SET name = ?, customer_id = ?, discount_percentage = ? WHERE id = ?");
+    private static final String DELETE_SQL = SqlCatalog.register("TravelPackage.delete", "DELETE FROM travel_packages WHERE id = ?");
+    private static final String INSERT_LINK_SQL = SqlCatalog.register("TravelPackage.insertLink",
+            "INSERT INTO package_bookings (package_id, booking_id) VALUES (?, ?) ON CONFLICT DO NOTHING");
+    private static final String DELETE_LINK_SQL = SqlCatalog.register("TravelPackage.deleteLink",
+            "DELETE FROM package_bookings WHERE package_id = ? AND booking_id = ?");
+    private static final String DELETE_OTHER_LINKS_SQL = SqlCatalog.register("TravelPackage.deleteOtherLinks",
+            "DELETE FROM package_bookings WHERE package_id = ? AND NOT (booking_id = ANY (?))");
+
+    // One row per booking of the package, or a single row with null booking columns for an empty package
+    private static final String SELECT_PACKAGES =
+            "SELECT p.id AS package_id, p.name AS package_name, p.customer_id AS package_customer_id, " +
+            "p.discount_percentage, " + BookingRepository.BOOKING_COLUMNS + " " +
+            "FROM travel_packages p " +
+            "LEFT JOIN package_bookings pb ON pb.package_id = p.id " +
+            "LEFT JOIN bookings b ON b.id = pb.booking_id " +
+            "LEFT JOIN flight_bookings fb ON fb.booking_id = b.id " +
+            "LEFT JOIN hotel_bookings hb ON hb.booking_id = b.id";
+    private static final String SELECT_ALL_SQL = SqlCatalog.register("TravelPackage.selectAll", SELECT_PACKAGES + " ORDER BY p.id, b.id");
+    // The page limit applies to packages, not to the joined booking rows
+    private static final String SELECT_PAGE_SQL = SqlCatalog.register("TravelPackage.selectPage", SELECT_PACKAGES
+            + " WHERE p.id IN (SELECT id FROM travel_packages WHERE id > ? ORDER BY id LIMIT ?) ORDER BY p.id, b.id");
+    private static final String COUNT_SQL = SqlCatalog.register("TravelPackage.count", "SELECT COUNT(*) FROM travel_packages");
+    private static final String SELECT_BY_ID_SQL = SqlCatalog.register("TravelPackage.selectById", SELECT_PACKAGES + " WHERE p.id = ? ORDER BY b.id");
+
+    private static final String SELECT_SUMMARIES =
+            "SELECT id, name, customer_id, customer_name, customer_email, discount_percentage, booking_count, " +
+            "total_before_discount, total_after_discount, discount_amount FROM v_packages_summary";
+    private static final String SUMMARY_BY_ID_SQL = SqlCatalog.register("TravelPackage.summaryById", SELECT_SUMMARIES + " WHERE id = ?");
+    private static final String SUMMARIES_BY_CUSTOMER_SQL = SqlCatalog.register("TravelPackage.summariesByCustomer",
+            SELECT_SUMMARIES + " WHERE customer_id = ? ORDER BY id");
+
+    // Locks the package's bookings, updates the eligible ones, applies the revenue_rollup delta and
+    // reports every booking with its status before the change - a single statement, so a single
+    // round trip and transaction
+    private static final String TRANSITION_BOOKINGS_SQL = SqlCatalog.register("TravelPackage.transitionBookings",
+            "WITH members AS (" +
+            "    SELECT b.id, b.booking_date, b.type, b.status, b.total_price" +
+            "    FROM bookings b JOIN package_bookings pb ON pb.booking_id = b.id" +
+            "    WHERE pb.package_id = ? FOR UPDATE OF b" +
+            "), changed AS (" +
+            "    UPDATE bookings b SET status = ? FROM members m" +
+            "    WHERE b.id = m.id AND m.status = ANY (?) RETURNING b.id, b.booking_date, b.type, b.status, b.total_price" +
+            "), old_rows AS (SELECT m.* FROM members m JOIN changed c ON c.id = m.id" +
+            "), new_rows AS (SELECT * FROM changed" +
+            "), " + RevenueRollup.DELTA_CTE + ", rolled AS (" + RevenueRollup.APPLY_DELTA + ") " +
+            "SELECT m.id, m.status, c.id IS NOT NULL AS changed FROM members m LEFT JOIN changed c ON c.id = m.id ORDER BY m.id");
+    private static final String PACKAGE_EXISTS_SQL = SqlCatalog.register("TravelPackage.exists", "SELECT 1 FROM travel_packages WHERE id = ?");
+
+    /**
+     * Inserts the package and links its bookings, which must already be stored, in one transaction.
+     */
+    @Override
+    public void create(TravelPackage travelPackage) {
+        List<Integer> bookingIds = bookingIds(travelPackage);
+        int id;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_PACKAGE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, travelPackage.getPackageName());
+                ps.setInt(2, travelPackage.getCustomerId());
+                ps.setDouble(3, travelPackage.getDiscountPercentage());
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new DatabaseOperationException("Creating travel package failed, no ID obtained");
+                    }
+                    id = keys.getInt(1);
+                }
+                insertLinks(conn, id, bookingIds);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            if (FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                throw new ResourceNotFoundException("Customer or booking of travel package not found: " + e.getMessage(), e);
+            }
+            throw new DatabaseOperationException("create", "TravelPackage", e);
+        }
+        travelPackage.setId(id);
+    }
+
+    @Override
+    public List<TravelPackage> getAll() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            return readPackages(rs);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getAll", "TravelPackage", e);
+        }
+    }
+
+    @Override
+    public Page<TravelPackage> getPage(PageRequest request) {
+        List<TravelPackage> list;
+        long total = Page.UNKNOWN_TOTAL;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_PAGE_SQL)) {
+                ps.setInt(1, request.getAfterId());
+                ps.setInt(2, request.getSize() + 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    list = readPackages(rs);
+                }
+            }
+            if (request.isIncludeTotal()) {
+                try (PreparedStatement ps = conn.prepareStatement(COUNT_SQL);
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    total = rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getPage", "TravelPackage", e);
+        }
+        boolean hasNext = list.size() > request.getSize();
+        if (hasNext) {
+            list.remove(list.size() - 1);
+        }
+        int nextCursor = list.isEmpty() ? request.getAfterId() : list.get(list.size() - 1).getId();
+        return new Page<>(list, nextCursor, hasNext, total);
+    }
+
+    @Override
+    public TravelPackage getById(int id) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<TravelPackage> packages = readPackages(rs);
+                if (packages.isEmpty()) {
+                    throw new ResourceNotFoundException("TravelPackage", id);
+                }
+                return packages.get(0);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getById", "TravelPackage", e);
+        }
+    }
+
+    /**
+     * Updates the package columns and makes the stored links match the package's bookings,
+     * in one transaction.
+     *
+     * @throws ResourceNotFoundException if the package does not exist
+     */
+    @Override
+    public void update(int id, TravelPackage travelPackage) {
+        List<Integer> bookingIds = bookingIds(travelPackage);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(UPDATE_PACKAGE_SQL)) {
+                    ps.setString(1, travelPackage.getPackageName());
+                    ps.setInt(2, travelPackage.getCustomerId());
+                    ps.setDouble(3, travelPackage.getDiscountPercentage());
+                    ps.setInt(4, id);
+                    if (ps.executeUpdate() == 0) {
+                        throw new ResourceNotFoundException("TravelPackage", id);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_OTHER_LINKS_SQL)) {
+                    ps.setInt(1, id);
+                    ps.setArray(2, conn.createArrayOf("bigint", bookingIds.toArray()));
+                    ps.executeUpdate();
+                }
+                insertLinks(conn, id, bookingIds);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            if (FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                throw new ResourceNotFoundException("Customer or booking of travel package not found: " + e.getMessage(), e);
+            }
+            throw new DatabaseOperationException("update", "TravelPackage", e);
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        // package_bookings rows go with it (ON DELETE CASCADE); the bookings themselves stay
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+            ps.setInt(1, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("delete", "TravelPackage", e);
+        }
+    }
+
+    @Override
+    public int addBookings(int packageId, List<Integer> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int added = insertLinks(conn, packageId, bookingIds);
+                conn.commit();
+                return added;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            if (FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                throw new ResourceNotFoundException(String.format(
+                        "TravelPackage with ID %d or one of bookings %s not found", packageId, bookingIds), e);
+            }
+            throw new DatabaseOperationException("addBookings", "TravelPackage", e);
+        }
+    }
+
+    @Override
+    public void removeBooking(int packageId, int bookingId) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(DELETE_LINK_SQL)) {
+            ps.setInt(1, packageId);
+            ps.setInt(2, bookingId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("removeBooking", "TravelPackage", e);
+        }
+    }
+
+    @Override
+    public PackageSummary getSummary(int id) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUMMARY_BY_ID_SQL)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ResourceNotFoundException("TravelPackage", id);
+                }
+                return mapSummary(rs);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getSummary", "TravelPackage", e);
+        }
+    }
+
+    @Override
+    public List<PackageSummary> getSummariesByCustomer(int customerId) {
+        List<PackageSummary> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUMMARIES_BY_CUSTOMER_SQL)) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getSummariesByCustomer", "TravelPackage", e);
+        }
+        return list;
+    }
+
+    @Override
+    public BulkTransitionResult transitionBookings(int packageId, Set<BookingStatus> expected, BookingStatus target) {
+        String[] from = new String[expected.size()];
+        int i = 0;
+        for (BookingStatus status : expected) {
+            from[i++] = status.name();
+        }
+        Map<Integer, BookingStatus> previous = new LinkedHashMap<>();
+        Set<Integer> changed = new HashSet<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(TRANSITION_BOOKINGS_SQL)) {
+                ps.setInt(1, packageId);
+                ps.setString(2, target.name());
+                ps.setArray(3, conn.createArrayOf("varchar", from));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int bookingId = rs.getInt("id");
+                        previous.put(bookingId, BookingStatus.valueOf(rs.getString("status")));
+                        if (rs.getBoolean("changed")) {
+                            changed.add(bookingId);
+                        }
+                    }
+                }
+            }
+            // Only an empty result needs telling apart: empty package or no package at all
+            if (previous.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement(PACKAGE_EXISTS_SQL)) {
+                    ps.setInt(1, packageId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new ResourceNotFoundException("TravelPackage", packageId);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("transitionBookings", "TravelPackage", e);
+        }
+        return new BulkTransitionResult(target, previous, changed);
+    }
+
+    /**
+     * Inserts package_bookings rows as JDBC batches on the caller's transaction.
+     *
+     * @return the number of links that did not exist yet
+     */
+    private static int insertLinks(Connection conn, int packageId, List<Integer> bookingIds) throws SQLException {
+        int added = 0;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_LINK_SQL)) {
+            for (int from = 0; from < bookingIds.size(); from += BATCH_CHUNK_SIZE) {
+                int to = Math.min(from + BATCH_CHUNK_SIZE, bookingIds.size());
+                for (int i = from; i < to; i++) {
+                    ps.setInt(1, packageId);
+                    ps.setInt(2, bookingIds.get(i));
+                    ps.addBatch();
+                }
+                for (int count : ps.executeBatch()) {
+                    if (count > 0) {
+                        added += count;
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    private static List<Integer> bookingIds(TravelPackage travelPackage) {
+        List<Integer> ids = new ArrayList<>();
+        for (Booking booking : travelPackage.getBookings()) {
+            if (booking.getId() <= 0) {
+                throw new IllegalArgumentException("Bookings must be stored before they are added to a package");
+            }
+            ids.add(booking.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Folds the joined rows (ordered by package) back into packages with their bookings.
+     */
+    private static List<TravelPackage> readPackages(ResultSet rs) throws SQLException {
+        List<TravelPackage> packages = new ArrayList<>();
+        TravelPackage current = null;
+        while (rs.next()) {
+            int packageId = rs.getInt("package_id");
+            if (current == null || current.getId() != packageId) {
+                current = new TravelPackage(packageId, rs.getString("package_name"),
+                        rs.getInt("package_customer_id"), rs.getDouble("discount_percentage"));
+                packages.add(current);
+                ROWS_MAPPED.increment();
+            }
+            // Skip the null row of an empty package and bookings missing their flight/hotel row
+            if (rs.getString("flight_number") != null || rs.getString("hotel_name") != null) {
+                current.addBooking(BookingRepository.mapBooking(rs));
+            }
+        }
+        return packages;
+    }
+
+    private static PackageSummary mapSummary(ResultSet rs) throws SQLException {
+        return new PackageSummary(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("customer_id"),
+                rs.getString("customer_name"),
+                rs.getString("customer_email"),
+                rs.getDouble("discount_percentage"),
+                rs.getInt("booking_count"),
+                rs.getDouble("total_before_discount"),
+                rs.getDouble("total_after_discount"),
+                rs.getDouble("discount_amount")
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package repository;
+
+/**
+ * {@code UPDATE table SET ... WHERE key = ?} statements for every subset of a table's
+ * updatable columns, built once and looked up by an entity's dirty-field bits. Column
+ * {@code i} corresponds to bit {@code firstBit << i}, and the SET list keeps that order.
+ */
+final class UpdateStatements {
+    private final int shift;
+    private final int columnCount;
+    private final String[] statements;
+
+    UpdateStatements(String table, String key, int firstBit, String... columns) {
+        this.shift = Integer.numberOfTrailingZeros(firstBit);
+        this.columnCount = columns.length;
+        this.statements = new String[1 << columns.length];
+        for (int mask = 1; mask < statements.length; mask++) {
+            StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+            String separator = "";
+            for (int i = 0; i < columns.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    sql.append(separator).append(columns[i]).append(" = ?");
+                    separator = ", ";
+                }
+            }
+            statements[mask] = sql.append(" WHERE ").append(key).append(" = ?").toString();
+        }
+    }
+
+    /**
+     * The dirty bits that belong to this table; 0 means the table needs no statement.
+     */
+    int fields(int dirtyFields) {
+        return dirtyFields & (((1 << columnCount) - 1) << shift);
+    }
+
+    String sql(int fields) {
+        return statements[fields >>> shift];
+    }
+}
@@ -0,0 +1,396 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import logging.EventLog;
+import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.BookingRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind decorator for booking intake. create and createAll append the bookings to a
+ * local {@link BookingJournal} and return as soon as the journal is synced to disk; a
+ * background drainer inserts them into the delegate in batches through
+ * {@link BookingRepositoryInterface#createAll}. Concurrent callers share journal syncs, and
+ * under load one database transaction carries up to {@code batchSize} bookings.
+ * <p>
+ * Because the database assigns ids, an accepted booking keeps id 0 and is not visible to
+ * getById, getAll or getPage until it has been drained; {@link #flush} waits for that.
+ * existsSimilar also checks the bookings still waiting, so the duplicate rule holds across the
+ * gap. All other reads and writes go straight to the delegate.
+ * <p>
+ * Bookings that failed because the database could not be reached (SQLState class 08, or a pool
+ * acquire timeout) are retried, with the existsSimilar check of a replay since the rest of their
+ * batch may have gone in, and the drained marker never passes the oldest of them. Bookings the
+ * database rejects, such as constraint violations, are logged, counted in
+ * {@link #getFailedCount} and dropped, so one bad booking never holds up the journal.
+ * <p>
+ * Once the journal file passes 64 MiB it is compacted down to the bookings still waiting.
+ * <p>
+ * Opening the repository replays bookings the previous run journaled but never marked as
+ * drained. A crash between a database commit and the drained marker could insert a booking
+ * twice, so replayed bookings that already exist in the database (per existsSimilar) are skipped.
+ */
+public class WriteBehindBookingRepository implements BookingRepositoryInterface, AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_MAX_PENDING = 100_000;
+    private static final long JOURNAL_COMPACT_BYTES = 64L << 20;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 30_000;
+
+    private final BookingRepositoryInterface delegate;
+    private final BookingJournal journal;
+    private final int batchSize;
+
+    private final LinkedBlockingQueue<BookingJournal.Entry> pending = new LinkedBlockingQueue<>();
+    private volatile List<BookingJournal.Entry> inFlight = Collections.emptyList();
+    // Keeps journal order and queue order identical
+    private final ReentrantLock intakeLock = new ReentrantLock();
+    private final Semaphore capacity;
+    private final int maxPending;
+
+    private final Object drainMonitor = new Object();
+    private long lastAcceptedSeq;
+    private long lastDrainedSeq;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder drained = new LongAdder();
+    private final LongAdder skippedOnReplay = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final Thread drainer;
+    private volatile boolean closing;
+    private volatile boolean stopped;
+
+    public WriteBehindBookingRepository(BookingRepositoryInterface delegate, Path journalFile) {
+        this(delegate, journalFile, DEFAULT_BATCH_SIZE, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * @param maxPending bookings accepted but not yet drained; create blocks while the limit is reached
+     */
+    public WriteBehindBookingRepository(BookingRepositoryInterface delegate, Path journalFile, int batchSize, int maxPending) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (batchSize <= 0 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Batch size must be greater than 0 and no larger than maxPending");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        try {
+            this.journal = new BookingJournal(journalFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open booking journal " + journalFile, e);
+        }
+
+        List<BookingJournal.Entry> recovered = journal.recovered();
+        this.capacity = new Semaphore(Math.max(0, maxPending - recovered.size()), true);
+        pending.addAll(recovered);
+        if (!recovered.isEmpty()) {
+            lastAcceptedSeq = recovered.get(recovered.size() - 1).seq;
+            lastDrainedSeq = recovered.get(0).seq - 1;
+        }
+
+        this.drainer = new Thread(this::drainLoop, "booking-journal-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public void create(Booking booking) {
+        accept(Collections.singletonList(booking));
+    }
+
+    /**
+     * Journals all bookings with a single sync. Every booking is reported as created, with id 0;
+     * bookings the database later rejects are counted in {@link #getFailedCount}.
+     */
+    @Override
+    public BatchResult<Booking> createAll(List<Booking> bookings) {
+        for (int from = 0; from < bookings.size(); from += batchSize) {
+            accept(bookings.subList(from, Math.min(from + batchSize, bookings.size())));
+        }
+        return new BatchResult<>(new ArrayList<>(bookings), new TreeMap<>());
+    }
+
+    private void accept(List<Booking> bookings) {
+        if (closing) {
+            throw new IllegalStateException("Booking journal is closed");
+        }
+        List<Booking> copies = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            copies.add(InMemoryBookingRepository.copy(booking));
+        }
+        capacity.acquireUninterruptibly(copies.size());
+        long[] position = new long[1];
+        intakeLock.lock();
+        try {
+            List<BookingJournal.Entry> entries = journal.append(copies, position);
+            pending.addAll(entries);
+            synchronized (drainMonitor) {
+                lastAcceptedSeq = entries.get(entries.size() - 1).seq;
+            }
+        } catch (IOException e) {
+            capacity.release(copies.size());
+            throw new DatabaseOperationException("journal", "Booking", e);
+        } finally {
+            intakeLock.unlock();
+        }
+        try {
+            journal.awaitDurable(position[0]);
+        } catch (IOException e) {
+            throw new DatabaseOperationException("journal", "Booking", e);
+        }
+        accepted.add(copies.size());
+    }
+
+    /**
+     * Blocks until every booking accepted so far has been written to the database (or rejected by it).
+     */
+    public void flush() throws InterruptedException {
+        synchronized (drainMonitor) {
+            long target = lastAcceptedSeq;
+            while (lastDrainedSeq < target && !stopped) {
+                drainMonitor.wait();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<BookingJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (!stopped) {
+            try {
+                if (batch.isEmpty()) {
+                    BookingJournal.Entry first = pending.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closing) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                    inFlight = new ArrayList<>(batch);
+                }
+                List<BookingJournal.Entry> retry = drain(batch);
+                batch.clear();
+                batch.addAll(retry);
+                inFlight = retry.isEmpty() ? Collections.emptyList() : retry;
+                if (!retry.isEmpty()) {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                EventLog.getDefault().warn("journal.drain_failed").with("error", e.getMessage()).publish();
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the bookings that failed because the database was unreachable, in sequence order,
+     *         marked as recovered so that the retry skips any that did get in
+     */
+    private List<BookingJournal.Entry> drain(List<BookingJournal.Entry> batch) throws IOException {
+        List<BookingJournal.Entry> retry = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>(batch.size());
+        List<BookingJournal.Entry> inserted = new ArrayList<>(batch.size());
+        for (BookingJournal.Entry entry : batch) {
+            if (entry.recovered && delegate.existsSimilar(entry.booking)) {
+                skippedOnReplay.increment();
+                continue;
+            }
+            bookings.add(entry.booking);
+            inserted.add(entry);
+        }
+
+        if (!bookings.isEmpty()) {
+            BatchResult<Booking> result = delegate.createAll(bookings);
+            int rejected = 0;
+            RuntimeException unreachable = null;
+            for (Map.Entry<Integer, RuntimeException> failure : result.getFailures().entrySet()) {
+                BookingJournal.Entry entry = inserted.get(failure.getKey());
+                if (DatabaseConnection.isConnectionFailure(failure.getValue())) {
+                    retry.add(new BookingJournal.Entry(entry.seq, entry.booking, true));
+                    unreachable = failure.getValue();
+                    continue;
+                }
+                rejected++;
+                EventLog.getDefault().warn("journal.booking_dropped")
+                        .with("seq", entry.seq)
+                        .with("customerId", entry.booking.getCustomerId())
+                        .with("error", failure.getValue().getMessage())
+                        .publish();
+            }
+            failed.add(rejected);
+            drained.add(result.getCreated().size());
+            if (unreachable != null) {
+                retry.sort(Comparator.comparingLong(entry -> entry.seq));
+                EventLog.getDefault().warn("journal.drain_retry")
+                        .with("bookings", retry.size())
+                        .with("error", unreachable.getMessage())
+                        .publish();
+            }
+        }
+
+        // Everything before the oldest retried booking is in the database or was rejected
+        long drainedSeq = retry.isEmpty() ? batch.get(batch.size() - 1).seq : retry.get(0).seq - 1;
+        long previousSeq;
+        synchronized (drainMonitor) {
+            previousSeq = lastDrainedSeq;
+        }
+        if (drainedSeq > previousSeq) {
+            journal.markDrained(drainedSeq);
+        }
+        int done = batch.size() - retry.size();
+        capacity.release(Math.min(done, maxPending - capacity.availablePermits()));
+        synchronized (drainMonitor) {
+            lastDrainedSeq = Math.max(lastDrainedSeq, drainedSeq);
+            drainMonitor.notifyAll();
+        }
+        if (journal.size() > JOURNAL_COMPACT_BYTES) {
+            // Holding the intake lock keeps the queue and the journal in step while the file is rewritten
+            intakeLock.lock();
+            try {
+                List<BookingJournal.Entry> undrained = new ArrayList<>(retry.size() + pending.size());
+                undrained.addAll(retry);
+                undrained.addAll(pending);
+                journal.compact(drainedSeq, undrained);
+            } finally {
+                intakeLock.unlock();
+            }
+        }
+        return retry;
+    }
+
+    @Override
+    public boolean existsSimilar(Booking booking) {
+        // Waiting bookings have no id yet, so every match among them is another booking
+        for (BookingJournal.Entry entry : inFlight) {
+            if (InMemoryBookingRepository.isSimilar(booking, entry.booking)) {
+                return true;
+            }
+        }
+        for (BookingJournal.Entry entry : pending) {
+            if (InMemoryBookingRepository.isSimilar(booking, entry.booking)) {
+                return true;
+            }
+        }
+        return delegate.existsSimilar(booking);
+    }
+
+    @Override
+    public List<Booking> findTopByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        return delegate.findTopByPrice(limit, descending, status, type);
+    }
+
+    @Override
+    public void transitionStatus(int id, Set<BookingStatus> expected, BookingStatus target) {
+        delegate.transitionStatus(id, expected, target);
+    }
+
+    @Override
+    public List<Booking> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Page<Booking> getPage(PageRequest request) {
+        return delegate.getPage(request);
+    }
+
+    @Override
+    public Booking getById(int id) {
+        return delegate.getById(id);
+    }
+
+    @Override
+    public void update(int id, Booking booking) {
+        delegate.update(id, booking);
+    }
+
+    @Override
+    public void delete(int id) {
+        delegate.delete(id);
+    }
+
+    public int getPendingCount() {
+        return pending.size() + inFlight.size();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getDrainedCount() {
+        return drained.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getSkippedOnReplayCount() {
+        return skippedOnReplay.sum();
+    }
+
+    /**
+     * Number of journal syncs so far; well below {@link #getAcceptedCount} when callers share them.
+     */
+    public long getSyncCount() {
+        return journal.getSyncCount();
+    }
+
+    /**
+     * Stops accepting bookings and drains what is pending for up to 30 seconds. Anything left
+     * stays in the journal and is replayed by the next instance.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        try {
+            drainer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        drainer.interrupt();
+        synchronized (drainMonitor) {
+            drainMonitor.notifyAll();
+        }
+        try {
+            drainer.join();
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
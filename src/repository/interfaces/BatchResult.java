@@ -0,0 +1,36 @@
+package repository.interfaces;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk insert: the entities that were stored (with their generated ids) and,
+ * keyed by position in the input list, the error for each entity that was not.
+ */
+public class BatchResult<T> {
+    private final List<T> created;
+    private final Map<Integer, RuntimeException> failures;
+
+    public BatchResult(List<T> created, Map<Integer, RuntimeException> failures) {
+        this.created = Collections.unmodifiableList(created);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public List<T> getCreated() {
+        return created;
+    }
+
+    public Map<Integer, RuntimeException> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult[created=%d, failed=%d]", created.size(), failures.size());
+    }
+}
@@ -2,15 +2,81 @@ package repository;
 
 import exception.DatabaseOperationException;
 import exception.ResourceNotFoundException;
+import exception.StatusConflictException;
+import metrics.Counter;
+import metrics.MetricsRegistry;
 import model.*;
-import repository.interfaces.CrudRepository;
+import repository.interfaces.BatchResult;
+import repository.interfaces.BookingRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import utils.DatabaseConnection;
+import utils.SqlCatalog;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
-
-public class BookingRepository implements CrudRepository<Booking> {
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class BookingRepository implements BookingRepositoryInterface {
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final Counter ROWS_MAPPED = MetricsRegistry.getDefault()
+            .counter("repository_rows_mapped_total", "entity", "Booking");
+
+    private static final String INSERT_BOOKING_SQL = SqlCatalog.register("Booking.insert",
+            "INSERT INTO bookings (booking_date, total_price, status, customer_id, type) VALUES (?, ?, ?, ?, ?)");
+    private static final String INSERT_FLIGHT_SQL = SqlCatalog.register("Booking.insertFlight",
+            "INSERT INTO flight_bookings (booking_id, flight_number, origin, destination, seat_class) VALUES (?, ?, ?, ?, ?)");
+    private static final String INSERT_HOTEL_SQL = SqlCatalog.register("Booking.insertHotel",
+            "INSERT INTO hotel_bookings (booking_id, hotel_name, room_type, nights) VALUES (?, ?, ?, ?)");
+
+    private static final String SIMILAR_FLIGHT_SQL = SqlCatalog.register("Booking.similarFlight",
+            "SELECT 1 FROM bookings b JOIN flight_bookings fb ON fb.booking_id = b.id " +
+            "WHERE b.customer_id = ? AND b.booking_date = ? AND b.type = 'FLIGHT' AND b.status <> 'CANCELLED' " +
+            "AND b.id <> ? AND fb.flight_number = ? LIMIT 1");
+    private static final String SIMILAR_HOTEL_SQL = SqlCatalog.register("Booking.similarHotel",
+            "SELECT 1 FROM bookings b JOIN hotel_bookings hb ON hb.booking_id = b.id " +
+            "WHERE b.customer_id = ? AND b.booking_date = ? AND b.type = 'HOTEL' AND b.status <> 'CANCELLED' " +
+            "AND b.id <> ? AND hb.hotel_name = ? LIMIT 1");
+
+    private static final String TRANSITION_STATUS_SQL = SqlCatalog.register("Booking.transitionStatus", RevenueRollup.maintained(
+            "old_rows AS (SELECT id, booking_date, type, status, total_price FROM bookings WHERE id = ? AND status = ANY (?) FOR UPDATE), " +
+            "new_rows AS (UPDATE bookings b SET status = ? FROM old_rows o WHERE b.id = o.id " +
+            "RETURNING b.booking_date, b.type, b.status, b.total_price)"));
+    private static final String DELETE_SQL = SqlCatalog.register("Booking.delete", RevenueRollup.maintained(
+            "old_rows AS (DELETE FROM bookings WHERE id = ? RETURNING booking_date, type, status, total_price), " +
+            "new_rows AS (SELECT * FROM old_rows WHERE false)"));
+    // Booking columns that move a booking between revenue_rollup groups or change its revenue
+    private static final int ROLLUP_FIELDS = Booking.BOOKING_DATE | Booking.TOTAL_PRICE | Booking.STATUS;
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+    private static final String SELECT_STATUS_SQL = SqlCatalog.register("Booking.selectStatus", "SELECT status FROM bookings WHERE id = ?");
+    private static final String EXISTS_SQL = SqlCatalog.register("Booking.exists", "SELECT 1 FROM bookings WHERE id = ?");
+
+    // Column order follows the dirty-field bits of Booking, FlightBooking and HotelBooking
+    private static final UpdateStatements UPDATE_BOOKING = new UpdateStatements("bookings", "id", Booking.BOOKING_DATE,
+            "booking_date", "total_price", "status", "customer_id");
+    private static final UpdateStatements UPDATE_FLIGHT = new UpdateStatements("flight_bookings", "booking_id", FlightBooking.FLIGHT_NUMBER,
+            "flight_number", "origin", "destination", "seat_class");
+    private static final UpdateStatements UPDATE_HOTEL = new UpdateStatements("hotel_bookings", "booking_id", HotelBooking.HOTEL_NAME,
+            "hotel_name", "room_type", "nights");
+    // UPDATE_BOOKING statements that also apply their revenue_rollup delta, by dirty bits
+    private static final String[] UPDATE_BOOKING_WITH_ROLLUP = new String[UPDATE_BOOKING.fields(-1) + 1];
+
+    static {
+        for (int fields = 1; fields < UPDATE_BOOKING_WITH_ROLLUP.length; fields++) {
+            UPDATE_BOOKING_WITH_ROLLUP[fields] = RevenueRollup.maintained(
+                    "old_rows AS (SELECT booking_date, type, status, total_price FROM bookings WHERE id = ? FOR UPDATE), " +
+                    "new_rows AS (" + UPDATE_BOOKING.sql(fields) + " RETURNING booking_date, type, status, total_price)");
+        }
+    }
 
     @Override
     public void create(Booking booking) {
@@ -23,13 +89,132 @@ public class BookingRepository implements CrudRepository<Booking> {
         }
     }
 
+    /**
+     * Inserts bookings in chunks, one transaction per chunk, using JDBC batches for both the
+     * bookings rows and the flight/hotel child rows. If a chunk fails it is retried row by
+     * row so that only the offending bookings are reported as failures; a booking whose
+     * customer does not exist fails with ResourceNotFoundException.
+     */
+    @Override
+    public BatchResult<Booking> createAll(List<Booking> bookings) {
+        List<Integer> flights = new ArrayList<>();
+        List<Integer> hotels = new ArrayList<>();
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (booking instanceof FlightBooking) {
+                flights.add(i);
+            } else if (booking instanceof HotelBooking) {
+                hotels.add(i);
+            } else {
+                failures.put(i, new IllegalArgumentException("Unknown booking type"));
+            }
+        }
+
+        createInChunks(bookings, flights, "FLIGHT", INSERT_FLIGHT_SQL, failures);
+        createInChunks(bookings, hotels, "HOTEL", INSERT_HOTEL_SQL, failures);
+
+        List<Booking> created = new ArrayList<>(bookings.size() - failures.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            if (!failures.containsKey(i)) {
+                created.add(bookings.get(i));
+            }
+        }
+        return new BatchResult<>(created, failures);
+    }
+
+    private void createInChunks(List<Booking> bookings, List<Integer> indexes, String type, String childSql,
+                                Map<Integer, RuntimeException> failures) {
+        for (int from = 0; from < indexes.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, indexes.size()));
+            try {
+                insertChunk(bookings, chunk, type, childSql);
+            } catch (SQLException | RuntimeException e) {
+                for (int index : chunk) {
+                    try {
+                        create(bookings.get(index));
+                    } catch (RuntimeException itemFailure) {
+                        failures.put(index, itemFailure);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertChunk(List<Booking> bookings, List<Integer> chunk, String type, String childSql) throws SQLException {
+        int[] ids = new int[chunk.size()];
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement bookingStmt = conn.prepareStatement(INSERT_BOOKING_SQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement childStmt = conn.prepareStatement(childSql)) {
+
+                for (int index : chunk) {
+                    Booking booking = bookings.get(index);
+                    bookingStmt.setDate(1, Date.valueOf(booking.getBookingDate()));
+                    bookingStmt.setDouble(2, booking.getTotalPrice());
+                    bookingStmt.setString(3, booking.getStatus().name());
+                    bookingStmt.setInt(4, booking.getCustomerId());
+                    bookingStmt.setString(5, type);
+                    bookingStmt.addBatch();
+                }
+                bookingStmt.executeBatch();
+
+                try (ResultSet keys = bookingStmt.getGeneratedKeys()) {
+                    for (int i = 0; i < ids.length; i++) {
+                        if (!keys.next()) {
+                            throw new DatabaseOperationException("Batch insert returned fewer IDs than rows");
+                        }
+                        ids[i] = keys.getInt(1);
+                    }
+                }
+
+                for (int i = 0; i < ids.length; i++) {
+                    Booking booking = bookings.get(chunk.get(i));
+                    childStmt.setInt(1, ids[i]);
+                    if (booking instanceof FlightBooking) {
+                        FlightBooking fb = (FlightBooking) booking;
+                        childStmt.setString(2, fb.getFlightNumber());
+                        childStmt.setString(3, fb.getOrigin());
+                        childStmt.setString(4, fb.getDestination());
+                        childStmt.setString(5, fb.getSeatClass().name());
+                    } else {
+                        HotelBooking hb = (HotelBooking) booking;
+                        childStmt.setString(2, hb.getHotelName());
+                        childStmt.setString(3, hb.getRoomType().name());
+                        childStmt.setInt(4, hb.getNights());
+                    }
+                    childStmt.addBatch();
+                }
+                childStmt.executeBatch();
+                RevenueRollup.addCreated(conn, ids);
+
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        // Ids are only handed out once the chunk is committed
+        for (int i = 0; i < ids.length; i++) {
+            Booking booking = bookings.get(chunk.get(i));
+            booking.setId(ids[i]);
+            booking.markClean();
+        }
+    }
+
+    // The only foreign key a new booking can miss is its customer_id
+    private static RuntimeException createFailure(String entity, Booking booking, SQLException e) {
+        if (FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+            return new ResourceNotFoundException("Customer", booking.getCustomerId());
+        }
+        return new DatabaseOperationException("create", entity, e);
+    }
+
     private void createFlightBooking(FlightBooking booking) {
-        String bookingSql = "INSERT INTO bookings (booking_date, total_price, status, customer_id, type) VALUES (?, ?, ?, ?, ?)";
-        String flightSql = "INSERT INTO flight_bookings (booking_id, flight_number, origin, destination, seat_class) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false);
-            try (PreparedStatement bookingStmt = conn.prepareStatement(bookingSql, Statement.RETURN_GENERATED_KEYS);
-                 PreparedStatement flightStmt = conn.prepareStatement(flightSql)) {
+            try (PreparedStatement bookingStmt = conn.prepareStatement(INSERT_BOOKING_SQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement flightStmt = conn.prepareStatement(INSERT_FLIGHT_SQL)) {
 
                 bookingStmt.setDate(1, Date.valueOf(booking.getBookingDate()));
                 bookingStmt.setDouble(2, booking.getTotalPrice());
@@ -52,24 +237,24 @@ public class BookingRepository implements CrudRepository<Booking> {
                 flightStmt.setString(4, booking.getDestination());
                 flightStmt.setString(5, booking.getSeatClass().name());
                 flightStmt.executeUpdate();
+                RevenueRollup.addCreated(conn, booking.getId());
 
                 conn.commit();
+                booking.markClean();
             } catch (SQLException e) {
                 conn.rollback();
                 throw e;
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("create", "FlightBooking", e);
+            throw createFailure("FlightBooking", booking, e);
         }
     }
 
     private void createHotelBooking(HotelBooking booking) {
-        String bookingSql = "INSERT INTO bookings (booking_date, total_price, status, customer_id, type) VALUES (?, ?, ?, ?, ?)";
-        String hotelSql = "INSERT INTO hotel_bookings (booking_id, hotel_name, room_type, nights) VALUES (?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false);
-            try (PreparedStatement bookingStmt = conn.prepareStatement(bookingSql, Statement.RETURN_GENERATED_KEYS);
-                 PreparedStatement hotelStmt = conn.prepareStatement(hotelSql)) {
+            try (PreparedStatement bookingStmt = conn.prepareStatement(INSERT_BOOKING_SQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement hotelStmt = conn.prepareStatement(INSERT_HOTEL_SQL)) {
 
                 bookingStmt.setDate(1, Date.valueOf(booking.getBookingDate()));
                 bookingStmt.setDouble(2, booking.getTotalPrice());
@@ -91,139 +276,388 @@ public class BookingRepository implements CrudRepository<Booking> {
                 hotelStmt.setString(3, booking.getRoomType().name());
                 hotelStmt.setInt(4, booking.getNights());
                 hotelStmt.executeUpdate();
+                RevenueRollup.addCreated(conn, booking.getId());
 
                 conn.commit();
+                booking.markClean();
             } catch (SQLException e) {
                 conn.rollback();
                 throw e;
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("create", "HotelBooking", e);
+            throw createFailure("HotelBooking", booking, e);
         }
     }
 
+    private static final String FROM_BOOKINGS =
+            "FROM bookings b " +
+            "LEFT JOIN flight_bookings fb ON fb.booking_id = b.id " +
+            "LEFT JOIN hotel_bookings hb ON hb.booking_id = b.id " +
+            "WHERE (fb.booking_id IS NOT NULL OR hb.booking_id IS NOT NULL)";
+
+    // Columns mapBooking reads, for b / fb / hb aliased as in FROM_BOOKINGS
+    static final String BOOKING_COLUMNS =
+            "b.id, b.customer_id, b.booking_date, b.total_price, b.status, b.type, " +
+            "fb.flight_number, fb.origin, fb.destination, fb.seat_class, " +
+            "hb.hotel_name, hb.room_type, hb.nights";
+
+    private static final String SELECT_BOOKINGS = "SELECT " + BOOKING_COLUMNS + " " + FROM_BOOKINGS;
+    private static final String SELECT_ALL_SQL = SqlCatalog.register("Booking.selectAll", SELECT_BOOKINGS + " ORDER BY b.id");
+    private static final String SELECT_PAGE_SQL = SqlCatalog.register("Booking.selectPage",
+            SELECT_BOOKINGS + " AND b.id > ? ORDER BY b.id LIMIT ?");
+    private static final String COUNT_SQL = SqlCatalog.register("Booking.count", "SELECT COUNT(*) " + FROM_BOOKINGS);
+    private static final String SELECT_BY_ID_SQL = SqlCatalog.register("Booking.selectById", SELECT_BOOKINGS + " AND b.id = ?");
+    // findTopByPrice statements indexed by these bits; e.g. Booking.topByPrice[status,desc]
+    private static final int TOP_STATUS = 1;
+    private static final int TOP_TYPE = 2;
+    private static final int TOP_DESCENDING = 4;
+    private static final String[] TOP_BY_PRICE_SQL = topByPriceVariants();
+
     @Override
     public List<Booking> getAll() {
-        List<Booking> result = new ArrayList<>();
-        result.addAll(getAllFlightBookings());
-        result.addAll(getAllHotelBookings());
-        return result;
-    }
-
-    private List<FlightBooking> getAllFlightBookings() {
-        String sql = "SELECT b.*, fb.flight_number, fb.origin, fb.destination, fb.seat_class FROM bookings b JOIN flight_bookings fb ON b.id = fb.booking_id";
-        List<FlightBooking> list = new ArrayList<>();
+        List<Booking> list = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                list.add(mapFlight(rs));
+                list.add(mapBooking(rs));
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("getAll", "FlightBooking", e);
+            throw new DatabaseOperationException("getAll", "Booking", e);
         }
         return list;
     }
 
-    private List<HotelBooking> getAllHotelBookings() {
-        String sql = "SELECT b.*, hb.hotel_name, hb.room_type, hb.nights FROM bookings b JOIN hotel_bookings hb ON b.id = hb.booking_id";
-        List<HotelBooking> list = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapHotel(rs));
+    @Override
+    public Page<Booking> getPage(PageRequest request) {
+        List<Booking> list = new ArrayList<>(request.getSize());
+        boolean hasNext = false;
+        long total = Page.UNKNOWN_TOTAL;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_PAGE_SQL)) {
+                ps.setInt(1, request.getAfterId());
+                ps.setInt(2, request.getSize() + 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (list.size() == request.getSize()) {
+                            hasNext = true;
+                            break;
+                        }
+                        list.add(mapBooking(rs));
+                    }
+                }
+            }
+            if (request.isIncludeTotal()) {
+                try (PreparedStatement ps = conn.prepareStatement(COUNT_SQL);
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    total = rs.getLong(1);
+                }
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("getAll", "HotelBooking", e);
+            throw new DatabaseOperationException("getPage", "Booking", e);
         }
-        return list;
+        int nextCursor = list.isEmpty() ? request.getAfterId() : list.get(list.size() - 1).getId();
+        return new Page<>(list, nextCursor, hasNext, total);
     }
 
-    @Override
-    public Booking getById(int id) {
+    /**
+     * Streams every booking through a server-side cursor, holding at most {@code fetchSize}
+     * rows in memory. The stream owns a pooled connection until it is closed, so callers
+     * must use it in a try-with-resources block.
+     */
+    public Stream<Booking> streamAll(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be greater than 0");
+        }
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
         try {
-            return getFlightById(id);
-        } catch (ResourceNotFoundException e) {
-            return getHotelById(id);
+            conn = DatabaseConnection.getConnection();
+            // PostgreSQL only honours the fetch size inside a transaction
+            conn.setAutoCommit(false);
+            ps = conn.prepareStatement(SELECT_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, ps, conn);
+            throw new DatabaseOperationException("streamAll", "Booking", e);
         }
+
+        ResultSet cursor = rs;
+        Spliterator<Booking> spliterator = new Spliterators.AbstractSpliterator<Booking>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Booking> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapBooking(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DatabaseOperationException("streamAll", "Booking", e);
+                }
+            }
+        };
+        AutoCloseable[] resources = {rs, ps, conn};
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeQuietly(resources));
     }
 
-    private FlightBooking getFlightById(int id) {
-        String sql = "SELECT b.*, fb.flight_number, fb.origin, fb.destination, fb.seat_class FROM bookings b JOIN flight_bookings fb ON b.id = fb.booking_id WHERE b.id = ?";
+    @Override
+    public Booking getById(int id) {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
 
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
-                    throw new ResourceNotFoundException("FlightBooking", id);
+                    throw new ResourceNotFoundException("Booking", id);
                 }
-                return mapFlight(rs);
+                return mapBooking(rs);
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("getById", "FlightBooking", e);
+            throw new DatabaseOperationException("getById", "Booking", e);
         }
     }
 
-    private HotelBooking getHotelById(int id) {
-        String sql = "SELECT b.*, hb.hotel_name, hb.room_type, hb.nights FROM bookings b JOIN hotel_bookings hb ON b.id = hb.booking_id WHERE b.id = ?";
+    @Override
+    public boolean existsSimilar(Booking booking) {
+        String sql;
+        String key;
+        if (booking instanceof FlightBooking) {
+            sql = SIMILAR_FLIGHT_SQL;
+            key = ((FlightBooking) booking).getFlightNumber();
+        } else if (booking instanceof HotelBooking) {
+            sql = SIMILAR_HOTEL_SQL;
+            key = ((HotelBooking) booking).getHotelName();
+        } else {
+            throw new IllegalArgumentException("Unknown booking type");
+        }
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, booking.getCustomerId());
+            ps.setDate(2, Date.valueOf(booking.getBookingDate()));
+            ps.setInt(3, booking.getId());
+            ps.setString(4, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("existsSimilar", "Booking", e);
+        }
+    }
 
-            ps.setInt(1, id);
+    @Override
+    public List<Booking> findTopByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        int variant = (status != null ? TOP_STATUS : 0) | (type != null ? TOP_TYPE : 0)
+                | (descending ? TOP_DESCENDING : 0);
+        List<Booking> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(TOP_BY_PRICE_SQL[variant])) {
+            int index = 1;
+            if (status != null) {
+                ps.setString(index++, status.name());
+            }
+            if (type != null) {
+                ps.setString(index++, type);
+            }
+            ps.setInt(index, limit);
             try (ResultSet rs = ps.executeQuery()) {
-                if (!rs.next()) {
-                    throw new ResourceNotFoundException("HotelBooking", id);
+                while (rs.next()) {
+                    list.add(mapBooking(rs));
                 }
-                return mapHotel(rs);
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("getById", "HotelBooking", e);
+            throw new DatabaseOperationException("findTopByPrice", "Booking", e);
+        }
+        return list;
+    }
+
+    private static String[] topByPriceVariants() {
+        String[] variants = new String[(TOP_STATUS | TOP_TYPE | TOP_DESCENDING) + 1];
+        for (int filters = 0; filters < variants.length; filters++) {
+            StringBuilder sql = new StringBuilder(SELECT_BOOKINGS);
+            StringJoiner names = new StringJoiner(",", "[", "]");
+            if ((filters & TOP_STATUS) != 0) {
+                sql.append(" AND b.status = ?");
+                names.add("status");
+            }
+            if ((filters & TOP_TYPE) != 0) {
+                sql.append(" AND b.type = ?");
+                names.add("type");
+            }
+            boolean descending = (filters & TOP_DESCENDING) != 0;
+            sql.append(descending ? " ORDER BY b.total_price DESC, b.id" : " ORDER BY b.total_price ASC, b.id");
+            sql.append(" LIMIT ?");
+            names.add(descending ? "desc" : "asc");
+            variants[filters] = SqlCatalog.register("Booking.topByPrice" + names, sql.toString());
         }
+        return variants;
     }
 
     @Override
-    public void update(int id, Booking booking) {
-        String bookingSql = "UPDATE bookings SET booking_date = ?, total_price = ?, status = ?, customer_id = ? WHERE id = ?";
+    public void transitionStatus(int id, Set<BookingStatus> expected, BookingStatus target) {
+        String[] from = new String[expected.size()];
+        int i = 0;
+        for (BookingStatus status : expected) {
+            from[i++] = status.name();
+        }
         try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
+            // The conditional UPDATE (with its rollup delta) is the whole transition; the SELECT only runs when it matched no row
+            while (true) {
+                try (PreparedStatement ps = conn.prepareStatement(TRANSITION_STATUS_SQL)) {
+                    ps.setInt(1, id);
+                    ps.setArray(2, conn.createArrayOf("varchar", from));
+                    ps.setString(3, target.name());
+                    // Counts revenue_rollup rows, so at least one when the booking changed
+                    if (ps.executeUpdate() > 0) {
+                        return;
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(SELECT_STATUS_SQL)) {
+                    ps.setInt(1, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new ResourceNotFoundException("Booking", id);
+                        }
+                        String current = rs.getString(1);
+                        if (!expected.contains(BookingStatus.valueOf(current))) {
+                            throw new StatusConflictException("Booking", id, current, target.name());
+                        }
+                        // Changed back to an expected status in between; try the update again
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("transitionStatus", "Booking", e);
+        }
+    }
 
-            try (PreparedStatement ps = conn.prepareStatement(bookingSql)) {
-                ps.setDate(1, Date.valueOf(booking.getBookingDate()));
-                ps.setDouble(2, booking.getTotalPrice());
-                ps.setString(3, booking.getStatus().name());
-                ps.setInt(4, booking.getCustomerId());
-                ps.setInt(5, id);
-                ps.executeUpdate();
+    /**
+     * Writes only the fields marked dirty on {@code booking}: the bookings row and the flight or
+     * hotel row each get a statement only if one of their columns changed, and a transaction
+     * only when both do. A booking with no dirty fields is not written at all; only its id is
+     * checked. A change of date,
+     * price or status updates revenue_rollup in the same statement as the bookings row.
+     *
+     * @throws ResourceNotFoundException if no booking (or no booking of this type) has the id
+     */
+    @Override
+    public void update(int id, Booking booking) {
+        int bookingFields = UPDATE_BOOKING.fields(booking.getDirtyFields());
+        UpdateStatements child = booking instanceof FlightBooking ? UPDATE_FLIGHT
+                : booking instanceof HotelBooking ? UPDATE_HOTEL : null;
+        int childFields = child == null ? 0 : child.fields(booking.getDirtyFields());
+        if (bookingFields == 0 && childFields == 0) {
+            if (!exists(id)) {
+                throw new ResourceNotFoundException("Booking", id);
             }
+            return;
+        }
 
-            if (booking instanceof FlightBooking) {
-                String flightSql = "UPDATE flight_bookings SET flight_number = ?, origin = ?, destination = ?, seat_class = ? WHERE booking_id = ?";
-                try (PreparedStatement fps = conn.prepareStatement(flightSql)) {
-                    FlightBooking fb = (FlightBooking) booking;
-                    fps.setString(1, fb.getFlightNumber());
-                    fps.setString(2, fb.getOrigin());
-                    fps.setString(3, fb.getDestination());
-                    fps.setString(4, fb.getSeatClass().name());
-                    fps.setInt(5, id);
-                    fps.executeUpdate();
+        boolean transaction = bookingFields != 0 && childFields != 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (transaction) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                if (bookingFields != 0) {
+                    boolean rollup = (bookingFields & ROLLUP_FIELDS) != 0;
+                    String sql = rollup ? UPDATE_BOOKING_WITH_ROLLUP[bookingFields] : UPDATE_BOOKING.sql(bookingFields);
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        int index = 1;
+                        if (rollup) {
+                            ps.setInt(index++, id);
+                        }
+                        if ((bookingFields & Booking.BOOKING_DATE) != 0) {
+                            ps.setDate(index++, Date.valueOf(booking.getBookingDate()));
+                        }
+                        if ((bookingFields & Booking.TOTAL_PRICE) != 0) {
+                            ps.setDouble(index++, booking.getTotalPrice());
+                        }
+                        if ((bookingFields & Booking.STATUS) != 0) {
+                            ps.setString(index++, booking.getStatus().name());
+                        }
+                        if ((bookingFields & Booking.CUSTOMER_ID) != 0) {
+                            ps.setInt(index++, booking.getCustomerId());
+                        }
+                        ps.setInt(index, id);
+                        if (ps.executeUpdate() == 0) {
+                            throw new ResourceNotFoundException("Booking", id);
+                        }
+                    }
                 }
-            } else if (booking instanceof HotelBooking) {
-                String hotelSql = "UPDATE hotel_bookings SET hotel_name = ?, room_type = ?, nights = ? WHERE booking_id = ?";
-                try (PreparedStatement hps = conn.prepareStatement(hotelSql)) {
-                    HotelBooking hb = (HotelBooking) booking;
-                    hps.setString(1, hb.getHotelName());
-                    hps.setString(2, hb.getRoomType().name());
-                    hps.setInt(3, hb.getNights());
-                    hps.setInt(4, id);
-                    hps.executeUpdate();
+                if (childFields != 0) {
+                    try (PreparedStatement ps = conn.prepareStatement(child.sql(childFields))) {
+                        int index = booking instanceof FlightBooking
+                                ? bindFlightFields(ps, (FlightBooking) booking, childFields)
+                                : bindHotelFields(ps, (HotelBooking) booking, childFields);
+                        ps.setInt(index, id);
+                        if (ps.executeUpdate() == 0) {
+                            // The booking exists only as the other type (or not at all)
+                            throw new ResourceNotFoundException(booking.getClass().getSimpleName(), id);
+                        }
+                    }
                 }
+                if (transaction) {
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (transaction) {
+                    conn.rollback();
+                }
+                throw e;
             }
+            booking.markClean();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("update", "Booking", e);
+        }
+    }
+
+    private static int bindFlightFields(PreparedStatement ps, FlightBooking fb, int fields) throws SQLException {
+        int index = 1;
+        if ((fields & FlightBooking.FLIGHT_NUMBER) != 0) {
+            ps.setString(index++, fb.getFlightNumber());
+        }
+        if ((fields & FlightBooking.ORIGIN) != 0) {
+            ps.setString(index++, fb.getOrigin());
+        }
+        if ((fields & FlightBooking.DESTINATION) != 0) {
+            ps.setString(index++, fb.getDestination());
+        }
+        if ((fields & FlightBooking.SEAT_CLASS) != 0) {
+            ps.setString(index++, fb.getSeatClass().name());
+        }
+        return index;
+    }
 
-            conn.commit();
+    private static int bindHotelFields(PreparedStatement ps, HotelBooking hb, int fields) throws SQLException {
+        int index = 1;
+        if ((fields & HotelBooking.HOTEL_NAME) != 0) {
+            ps.setString(index++, hb.getHotelName());
+        }
+        if ((fields & HotelBooking.ROOM_TYPE) != 0) {
+            ps.setString(index++, hb.getRoomType().name());
+        }
+        if ((fields & HotelBooking.NIGHTS) != 0) {
+            ps.setInt(index++, hb.getNights());
+        }
+        return index;
+    }
+
+    private boolean exists(int id) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(EXISTS_SQL)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
             throw new DatabaseOperationException("update", "Booking", e);
         }
@@ -231,9 +665,8 @@ public class BookingRepository implements CrudRepository<Booking> {
 
     @Override
     public void delete(int id) {
-        String sql = "DELETE FROM bookings WHERE id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
 
             ps.setInt(1, id);
             ps.executeUpdate();
@@ -242,7 +675,38 @@ public class BookingRepository implements CrudRepository<Booking> {
         }
     }
 
-    private FlightBooking mapFlight(ResultSet rs) throws SQLException {
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception ignored) {
+                // Nothing useful to do while releasing a cursor
+            }
+        }
+    }
+
+    static Booking mapBooking(ResultSet rs) throws SQLException {
+        String type = rs.getString("type");
+        Booking booking;
+        switch (type) {
+            case "FLIGHT":
+                booking = mapFlight(rs);
+                break;
+            case "HOTEL":
+                booking = mapHotel(rs);
+                break;
+            default:
+                throw new DatabaseOperationException("Unknown booking type: " + type);
+        }
+        booking.markClean();
+        ROWS_MAPPED.increment();
+        return booking;
+    }
+
+    private static FlightBooking mapFlight(ResultSet rs) throws SQLException {
         return new FlightBooking(
                 rs.getInt("id"),
                 rs.getDate("booking_date").toLocalDate(),
@@ -256,7 +720,7 @@ public class BookingRepository implements CrudRepository<Booking> {
         );
     }
 
-    private HotelBooking mapHotel(ResultSet rs) throws SQLException {
+    private static HotelBooking mapHotel(ResultSet rs) throws SQLException {
         return new HotelBooking(
                 rs.getInt("id"),
                 rs.getDate("booking_date").toLocalDate(),
@@ -0,0 +1,33 @@
+package repository.interfaces;
+
+import model.Booking;
+import model.BookingStatus;
+
+import java.util.List;
+import java.util.Set;
+
+public interface BookingRepositoryInterface extends CrudRepository<Booking> {
+    BatchResult<Booking> createAll(List<Booking> bookings);
+
+    /**
+     * Whether another non-cancelled booking exists for the same customer, date, type and
+     * flight number or hotel name.
+     */
+    boolean existsSimilar(Booking booking);
+
+    /**
+     * The {@code limit} cheapest (or most expensive) bookings, optionally restricted to a
+     * status and/or a booking type ("FLIGHT" or "HOTEL"); a null filter matches everything.
+     */
+    List<Booking> findTopByPrice(int limit, boolean descending, BookingStatus status, String type);
+
+    /**
+     * Moves booking {@code id} to {@code target} in one conditional write, provided its current
+     * status is one of {@code expected}; concurrent transitions on the same booking cannot both
+     * succeed from the same status.
+     *
+     * @throws exception.ResourceNotFoundException if the booking does not exist
+     * @throws exception.StatusConflictException if the booking's status is not in {@code expected}
+     */
+    void transitionStatus(int id, Set<BookingStatus> expected, BookingStatus target);
+}
@@ -0,0 +1,63 @@
+package repository.interfaces;
+
+import model.BookingStatus;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a set-based status change over several bookings: the status each booking had
+ * before, and which of them were moved to the target status. Bookings that were not moved
+ * kept their status because it was not one the change applies to.
+ */
+public class BulkTransitionResult {
+    private final BookingStatus target;
+    private final Map<Integer, BookingStatus> previousStatuses;
+    private final Set<Integer> changed;
+
+    public BulkTransitionResult(BookingStatus target, Map<Integer, BookingStatus> previousStatuses, Set<Integer> changed) {
+        this.target = target;
+        this.previousStatuses = Collections.unmodifiableMap(previousStatuses);
+        this.changed = Collections.unmodifiableSet(changed);
+    }
+
+    public BookingStatus getTarget() {
+        return target;
+    }
+
+    /**
+     * Status before the change for every booking considered, keyed by booking id.
+     */
+    public Map<Integer, BookingStatus> getPreviousStatuses() {
+        return previousStatuses;
+    }
+
+    public Set<Integer> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Bookings left unchanged, with the status that prevented the change.
+     */
+    public Map<Integer, BookingStatus> getConflicts() {
+        Map<Integer, BookingStatus> conflicts = new LinkedHashMap<>();
+        previousStatuses.forEach((id, status) -> {
+            if (!changed.contains(id)) {
+                conflicts.put(id, status);
+            }
+        });
+        return conflicts;
+    }
+
+    public boolean hasConflicts() {
+        return changed.size() < previousStatuses.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BulkTransitionResult[target=%s, changed=%d, conflicts=%d]",
+                target, changed.size(), previousStatuses.size() - changed.size());
+    }
+}
@@ -5,7 +5,8 @@ import java.util.List;
 public interface CrudRepository<T> {
     void create(T entity);
     List<T> getAll();
+    Page<T> getPage(PageRequest request);
     T getById(int id);
     void update(int id, T entity);
     void delete(int id);
-}
\ No newline at end of file
+}
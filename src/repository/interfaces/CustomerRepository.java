@@ -3,21 +3,48 @@ package repository;
 import exception.DatabaseOperationException;
 import exception.DuplicateResourceException;
 import exception.ResourceNotFoundException;
+import metrics.Counter;
+import metrics.MetricsRegistry;
 import model.Customer;
-import repository.interfaces.CrudRepository;
+import repository.interfaces.BatchResult;
+import repository.interfaces.CustomerRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import utils.DatabaseConnection;
+import utils.SqlCatalog;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
-public class CustomerRepository implements CrudRepository<Customer> {
+public class CustomerRepository implements CustomerRepositoryInterface {
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final Counter ROWS_MAPPED = MetricsRegistry.getDefault()
+            .counter("repository_rows_mapped_total", "entity", "Customer");
+
+    private static final String INSERT_CUSTOMER_SQL = SqlCatalog.register("Customer.insert",
+            "INSERT INTO customers (name, email, phone, passport_number) VALUES (?, ?, ?, ?)");
+    private static final String SELECT_ALL_SQL = SqlCatalog.register("Customer.selectAll", "SELECT * FROM customers ORDER BY id");
+    private static final String SELECT_PAGE_SQL = SqlCatalog.register("Customer.selectPage",
+            "SELECT * FROM customers WHERE id > ? ORDER BY id LIMIT ?");
+    private static final String COUNT_SQL = SqlCatalog.register("Customer.count", "SELECT COUNT(*) FROM customers");
+    private static final String SELECT_BY_ID_SQL = SqlCatalog.register("Customer.selectById", "SELECT * FROM customers WHERE id = ?");
+    private static final String SELECT_BY_EMAIL_SQL = SqlCatalog.register("Customer.selectByEmail", "SELECT * FROM customers WHERE email = ?");
+    private static final String EXISTS_SQL = SqlCatalog.register("Customer.exists", "SELECT 1 FROM customers WHERE id = ?");
+    private static final String EXISTS_BY_EMAIL_SQL = SqlCatalog.register("Customer.existsByEmail", "SELECT 1 FROM customers WHERE email = ?");
+    private static final String DELETE_SQL = SqlCatalog.register("Customer.delete", "DELETE FROM customers WHERE id = ?");
+    // Column order follows the dirty-field bits of Customer
+    private static final UpdateStatements UPDATE_CUSTOMER = new UpdateStatements("customers", "id", Customer.NAME,
+            "name", "email", "phone", "passport_number");
 
     @Override
     public void create(Customer customer) {
-        String sql = "INSERT INTO customers (name, email, phone, passport_number) VALUES (?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = conn.prepareStatement(INSERT_CUSTOMER_SQL, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, customer.getName());
             ps.setString(2, customer.getEmail());
             ps.setString(3, customer.getPhone());
@@ -26,21 +53,89 @@ public class CustomerRepository implements CrudRepository<Customer> {
             try (ResultSet keys = ps.getGeneratedKeys()) {
                 if (keys.next()) {
                     customer.setId(keys.getInt(1));
+                    customer.markClean();
                 } else {
                     throw new DatabaseOperationException("Creating customer failed, no ID obtained");
                 }
             }
         } catch (SQLException e) {
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw new DuplicateResourceException("Customer", "email: " + customer.getEmail());
+            }
             throw new DatabaseOperationException("create", "Customer", e);
         }
     }
 
+    /**
+     * Inserts customers in batched chunks, one transaction per chunk. A chunk that fails
+     * (typically on a duplicate email) is retried row by row to pinpoint the failures.
+     */
+    @Override
+    public BatchResult<Customer> createAll(List<Customer> customers) {
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        for (int from = 0; from < customers.size(); from += BATCH_CHUNK_SIZE) {
+            List<Customer> chunk = customers.subList(from, Math.min(from + BATCH_CHUNK_SIZE, customers.size()));
+            try {
+                insertChunk(chunk);
+            } catch (SQLException | RuntimeException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        create(chunk.get(i));
+                    } catch (RuntimeException itemFailure) {
+                        failures.put(from + i, itemFailure);
+                    }
+                }
+            }
+        }
+
+        List<Customer> created = new ArrayList<>(customers.size() - failures.size());
+        for (int i = 0; i < customers.size(); i++) {
+            if (!failures.containsKey(i)) {
+                created.add(customers.get(i));
+            }
+        }
+        return new BatchResult<>(created, failures);
+    }
+
+    private void insertChunk(List<Customer> chunk) throws SQLException {
+        int[] ids = new int[chunk.size()];
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_CUSTOMER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Customer customer : chunk) {
+                    ps.setString(1, customer.getName());
+                    ps.setString(2, customer.getEmail());
+                    ps.setString(3, customer.getPhone());
+                    ps.setString(4, customer.getPassportNumber());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < ids.length; i++) {
+                        if (!keys.next()) {
+                            throw new DatabaseOperationException("Batch insert returned fewer IDs than rows");
+                        }
+                        ids[i] = keys.getInt(1);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        for (int i = 0; i < ids.length; i++) {
+            chunk.get(i).setId(ids[i]);
+            chunk.get(i).markClean();
+        }
+    }
+
     @Override
     public List<Customer> getAll() {
-        String sql = "SELECT * FROM customers ORDER BY id";
         List<Customer> list = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 list.add(mapCustomer(rs));
@@ -51,11 +146,43 @@ public class CustomerRepository implements CrudRepository<Customer> {
         return list;
     }
 
+    @Override
+    public Page<Customer> getPage(PageRequest request) {
+        List<Customer> list = new ArrayList<>(request.getSize());
+        boolean hasNext = false;
+        long total = Page.UNKNOWN_TOTAL;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_PAGE_SQL)) {
+                ps.setInt(1, request.getAfterId());
+                ps.setInt(2, request.getSize() + 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (list.size() == request.getSize()) {
+                            hasNext = true;
+                            break;
+                        }
+                        list.add(mapCustomer(rs));
+                    }
+                }
+            }
+            if (request.isIncludeTotal()) {
+                try (PreparedStatement ps = conn.prepareStatement(COUNT_SQL);
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    total = rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("getPage", "Customer", e);
+        }
+        int nextCursor = list.isEmpty() ? request.getAfterId() : list.get(list.size() - 1).getId();
+        return new Page<>(list, nextCursor, hasNext, total);
+    }
+
     @Override
     public Customer getById(int id) {
-        String sql = "SELECT * FROM customers WHERE id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
@@ -68,18 +195,81 @@ public class CustomerRepository implements CrudRepository<Customer> {
         }
     }
 
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT_BY_EMAIL_SQL)) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapCustomer(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("findByEmail", "Customer", e);
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(EXISTS_BY_EMAIL_SQL)) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("existsByEmail", "Customer", e);
+        }
+    }
+
+    /**
+     * Writes only the columns whose fields are marked dirty on {@code customer}; a customer
+     * with no dirty fields is not written at all, only its id is checked.
+     *
+     * @throws ResourceNotFoundException if no customer has the id
+     */
     @Override
     public void update(int id, Customer customer) {
-        String sql = "UPDATE customers SET name = ?, email = ?, phone = ?, passport_number = ? WHERE id = ?";
+        int fields = UPDATE_CUSTOMER.fields(customer.getDirtyFields());
+        if (fields != 0) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(UPDATE_CUSTOMER.sql(fields))) {
+                int index = 1;
+                if ((fields & Customer.NAME) != 0) {
+                    ps.setString(index++, customer.getName());
+                }
+                if ((fields & Customer.EMAIL) != 0) {
+                    ps.setString(index++, customer.getEmail());
+                }
+                if ((fields & Customer.PHONE) != 0) {
+                    ps.setString(index++, customer.getPhone());
+                }
+                if ((fields & Customer.PASSPORT_NUMBER) != 0) {
+                    ps.setString(index++, customer.getPassportNumber());
+                }
+                ps.setInt(index, id);
+                if (ps.executeUpdate() == 0) {
+                    throw new ResourceNotFoundException("Customer", id);
+                }
+            } catch (SQLException e) {
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw new DuplicateResourceException("Customer", "email: " + customer.getEmail());
+                }
+                throw new DatabaseOperationException("update", "Customer", e);
+            }
+        } else if (!exists(id)) {
+            throw new ResourceNotFoundException("Customer", id);
+        }
+        customer.setId(id);
+        customer.markClean();
+    }
+
+    private boolean exists(int id) {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, customer.getName());
-            ps.setString(2, customer.getEmail());
-            ps.setString(3, customer.getPhone());
-            ps.setString(4, customer.getPassportNumber());
-            ps.setInt(5, id);
-            ps.executeUpdate();
-            customer.setId(id);
+             PreparedStatement ps = conn.prepareStatement(EXISTS_SQL)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
             throw new DatabaseOperationException("update", "Customer", e);
         }
@@ -87,9 +277,8 @@ public class CustomerRepository implements CrudRepository<Customer> {
 
     @Override
     public void delete(int id) {
-        String sql = "DELETE FROM customers WHERE id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
             ps.setInt(1, id);
             ps.executeUpdate();
         } catch (SQLException e) {
@@ -98,12 +287,15 @@ public class CustomerRepository implements CrudRepository<Customer> {
     }
 
     private Customer mapCustomer(ResultSet rs) throws SQLException {
-        return new Customer(
+        Customer customer = new Customer(
                 rs.getInt("id"),
                 rs.getString("name"),
                 rs.getString("email"),
                 rs.getString("phone"),
                 rs.getString("passport_number")
         );
+        customer.markClean();
+        ROWS_MAPPED.increment();
+        return customer;
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package repository.interfaces;
+
+import model.Customer;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomerRepositoryInterface extends CrudRepository<Customer> {
+    BatchResult<Customer> createAll(List<Customer> customers);
+    Optional<Customer> findByEmail(String email);
+    boolean existsByEmail(String email);
+}
@@ -0,0 +1,48 @@
+package repository.interfaces;
+
+import java.util.Collections;
+import java.util.List;
+
+public class Page<T> {
+    public static final long UNKNOWN_TOTAL = -1;
+
+    private final List<T> items;
+    private final int nextCursor;
+    private final boolean hasNext;
+    private final long totalCount;
+
+    public Page(List<T> items, int nextCursor, boolean hasNext, long totalCount) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.totalCount = totalCount;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Id of the last entity on this page; pass it as {@code afterId} to fetch the next page.
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Total number of entities, or {@link #UNKNOWN_TOTAL} when the request did not ask for it.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Page[items=%d, nextCursor=%d, hasNext=%s, total=%d]",
+                items.size(), nextCursor, hasNext, totalCount);
+    }
+}
@@ -0,0 +1,53 @@
+package repository.interfaces;
+
+/**
+ * Keyset page request: returns up to {@code size} entities whose id is greater than {@code afterId}.
+ */
+public class PageRequest {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final int afterId;
+    private final int size;
+    private final boolean includeTotal;
+
+    public PageRequest(int afterId, int size, boolean includeTotal) {
+        if (afterId < 0) {
+            throw new IllegalArgumentException("Cursor cannot be negative");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        this.afterId = afterId;
+        this.size = size;
+        this.includeTotal = includeTotal;
+    }
+
+    public static PageRequest first(int size) {
+        return new PageRequest(0, size, false);
+    }
+
+    public PageRequest next(Page<?> page) {
+        return new PageRequest(page.getNextCursor(), size, includeTotal);
+    }
+
+    public PageRequest withTotal() {
+        return new PageRequest(afterId, size, true);
+    }
+
+    public int getAfterId() {
+        return afterId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isIncludeTotal() {
+        return includeTotal;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PageRequest[afterId=%d, size=%d, includeTotal=%s]", afterId, size, includeTotal);
+    }
+}
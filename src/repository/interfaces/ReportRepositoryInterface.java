@@ -0,0 +1,37 @@
+package repository.interfaces;
+
+import model.BookingStatus;
+import model.CustomerActivity;
+import model.HotelOccupancy;
+import model.RevenueBreakdown;
+import model.RouteStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregates over all bookings, computed by the store. Date bounds are inclusive booking dates
+ * and a null bound or status filter matches everything.
+ */
+public interface ReportRepositoryInterface {
+    List<RevenueBreakdown> revenueByStatus(LocalDate from, LocalDate to);
+
+    List<RevenueBreakdown> revenueByType(LocalDate from, LocalDate to, BookingStatus status);
+
+    List<RevenueBreakdown> revenueByDay(LocalDate from, LocalDate to, BookingStatus status);
+
+    /**
+     * Customers with the most bookings first.
+     */
+    List<CustomerActivity> topCustomers(int limit);
+
+    /**
+     * Flight routes with the most bookings first.
+     */
+    List<RouteStats> topRoutes(int limit, BookingStatus status);
+
+    /**
+     * Hotels with the most booked nights first.
+     */
+    List<HotelOccupancy> hotelOccupancy(LocalDate from, LocalDate to, BookingStatus status);
+}
@@ -0,0 +1,38 @@
+package repository.interfaces;
+
+import model.BookingStatus;
+import model.PackageSummary;
+import model.TravelPackage;
+
+import java.util.List;
+import java.util.Set;
+
+public interface TravelPackageRepositoryInterface extends CrudRepository<TravelPackage> {
+
+    /**
+     * Links existing bookings to a package; links that already exist are left alone.
+     *
+     * @return the number of links added
+     * @throws exception.ResourceNotFoundException if the package or one of the bookings does not exist
+     */
+    int addBookings(int packageId, List<Integer> bookingIds);
+
+    void removeBooking(int packageId, int bookingId);
+
+    /**
+     * Booking count and totals of a package, computed by the database.
+     *
+     * @throws exception.ResourceNotFoundException if the package does not exist
+     */
+    PackageSummary getSummary(int id);
+
+    List<PackageSummary> getSummariesByCustomer(int customerId);
+
+    /**
+     * Moves every booking of the package whose status is in {@code expected} to {@code target},
+     * atomically and in one statement, and reports the outcome for each booking of the package.
+     *
+     * @throws exception.ResourceNotFoundException if the package does not exist
+     */
+    BulkTransitionResult transitionBookings(int packageId, Set<BookingStatus> expected, BookingStatus target);
+}
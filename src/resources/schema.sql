@@ -1,5 +1,6 @@
 DROP VIEW IF EXISTS v_packages_summary;
 DROP VIEW IF EXISTS v_all_bookings;
+DROP TABLE IF EXISTS revenue_rollup;
 DROP TABLE IF EXISTS package_bookings;
 DROP TABLE IF EXISTS travel_packages;
 DROP TABLE IF EXISTS flight_bookings;
@@ -76,10 +77,23 @@ CREATE TABLE package_bookings (
                                       FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE CASCADE
 );
 
+-- Booking count and revenue per booking date, type and status, maintained by every booking write
+-- (see RevenueRollup); rebuild with repository.RevenueRollupRepository rebuild
+CREATE TABLE revenue_rollup (
+                                booking_date DATE NOT NULL,
+                                type VARCHAR(30) NOT NULL,
+                                status VARCHAR(30) NOT NULL,
+                                booking_count BIGINT NOT NULL DEFAULT 0,
+                                revenue NUMERIC(16,2) NOT NULL DEFAULT 0,
+                                PRIMARY KEY (booking_date, type, status)
+);
+
 CREATE INDEX idx_bookings_customer ON bookings(customer_id);
 CREATE INDEX idx_bookings_status ON bookings(status);
 CREATE INDEX idx_bookings_date ON bookings(booking_date);
 CREATE INDEX idx_bookings_type ON bookings(type);
+CREATE INDEX idx_bookings_duplicate_check ON bookings(customer_id, booking_date, type);
+CREATE INDEX idx_bookings_total_price ON bookings(total_price);
 CREATE INDEX idx_customers_email ON customers(email);
 CREATE INDEX idx_flight_bookings_flight_number ON flight_bookings(flight_number);
 CREATE INDEX idx_hotel_bookings_hotel_name ON hotel_bookings(hotel_name);
@@ -179,3 +193,8 @@ INSERT INTO package_bookings (package_id, booking_id) VALUES
                                                           (1, 1),
                                                           (1, 5),
                                                           (2, 7);
+
+INSERT INTO revenue_rollup (booking_date, type, status, booking_count, revenue)
+SELECT booking_date, type, status, COUNT(*), SUM(total_price)
+FROM bookings
+GROUP BY booking_date, type, status;
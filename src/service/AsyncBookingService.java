@@ -0,0 +1,83 @@
+package service;
+
+import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import service.interfaces.AsyncBookingServiceInterface;
+import service.interfaces.BookingServiceInterface;
+import utils.AsyncExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking facade over a {@link BookingServiceInterface}: every call runs on a virtual
+ * thread of the given executor, and failures complete the future exceptionally with the
+ * same exception the synchronous service would have thrown.
+ */
+public class AsyncBookingService implements AsyncBookingServiceInterface {
+    private final BookingServiceInterface bookingService;
+    private final AsyncExecutor executor;
+
+    public AsyncBookingService(BookingServiceInterface bookingService, AsyncExecutor executor) {
+        this.bookingService = bookingService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> createBooking(Booking booking) {
+        return executor.run(() -> bookingService.createBooking(booking));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult<Booking>> createBookings(List<Booking> bookings) {
+        return executor.submit(() -> bookingService.createBookings(bookings));
+    }
+
+    @Override
+    public CompletableFuture<List<Booking>> getAllBookings() {
+        return executor.submit(bookingService::getAllBookings);
+    }
+
+    @Override
+    public CompletableFuture<Page<Booking>> getBookingsPage(PageRequest request) {
+        return executor.submit(() -> bookingService.getBookingsPage(request));
+    }
+
+    @Override
+    public CompletableFuture<Booking> getBookingById(int id) {
+        return executor.submit(() -> bookingService.getBookingById(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateBooking(int id, Booking booking) {
+        return executor.run(() -> bookingService.updateBooking(id, booking));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBooking(int id) {
+        return executor.run(() -> bookingService.deleteBooking(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> confirmBooking(int id) {
+        return executor.run(() -> bookingService.confirmBooking(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> cancelBooking(int id) {
+        return executor.run(() -> bookingService.cancelBooking(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Booking>> getSortedBookingsByPrice() {
+        return executor.submit(bookingService::getSortedBookingsByPrice);
+    }
+
+    @Override
+    public CompletableFuture<List<Booking>> getTopBookingsByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        return executor.submit(() -> bookingService.getTopBookingsByPrice(limit, descending, status, type));
+    }
+}
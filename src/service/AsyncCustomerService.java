@@ -0,0 +1,66 @@
+package service;
+
+import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import service.interfaces.AsyncCustomerServiceInterface;
+import service.interfaces.CustomerServiceInterface;
+import utils.AsyncExecutor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking facade over a {@link CustomerServiceInterface}, executed on virtual threads.
+ */
+public class AsyncCustomerService implements AsyncCustomerServiceInterface {
+    private final CustomerServiceInterface customerService;
+    private final AsyncExecutor executor;
+
+    public AsyncCustomerService(CustomerServiceInterface customerService, AsyncExecutor executor) {
+        this.customerService = customerService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> createCustomer(Customer customer) {
+        return executor.run(() -> customerService.createCustomer(customer));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult<Customer>> createCustomers(List<Customer> customers) {
+        return executor.submit(() -> customerService.createCustomers(customers));
+    }
+
+    @Override
+    public CompletableFuture<List<Customer>> getAllCustomers() {
+        return executor.submit(customerService::getAllCustomers);
+    }
+
+    @Override
+    public CompletableFuture<Page<Customer>> getCustomersPage(PageRequest request) {
+        return executor.submit(() -> customerService.getCustomersPage(request));
+    }
+
+    @Override
+    public CompletableFuture<Customer> getCustomerById(int id) {
+        return executor.submit(() -> customerService.getCustomerById(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Customer>> findCustomerByEmail(String email) {
+        return executor.submit(() -> customerService.findCustomerByEmail(email));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateCustomer(int id, Customer customer) {
+        return executor.run(() -> customerService.updateCustomer(id, customer));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCustomer(int id) {
+        return executor.run(() -> customerService.deleteCustomer(id));
+    }
+}
@@ -0,0 +1,70 @@
+package service;
+
+import model.BookingStatus;
+import model.CustomerActivity;
+import model.HotelOccupancy;
+import model.RevenueBreakdown;
+import model.RouteStats;
+import repository.interfaces.ReportRepositoryInterface;
+import service.interfaces.ReportServiceInterface;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class ReportService implements ReportServiceInterface {
+    private static final int MAX_LIMIT = 1000;
+
+    private final ReportRepositoryInterface reportRepository;
+
+    public ReportService(ReportRepositoryInterface reportRepository) {
+        this.reportRepository = reportRepository;
+    }
+
+    @Override
+    public List<RevenueBreakdown> getRevenueByStatus(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return reportRepository.revenueByStatus(from, to);
+    }
+
+    @Override
+    public List<RevenueBreakdown> getRevenueByType(LocalDate from, LocalDate to, BookingStatus status) {
+        checkRange(from, to);
+        return reportRepository.revenueByType(from, to, status);
+    }
+
+    @Override
+    public List<RevenueBreakdown> getRevenueByDay(LocalDate from, LocalDate to, BookingStatus status) {
+        checkRange(from, to);
+        return reportRepository.revenueByDay(from, to, status);
+    }
+
+    @Override
+    public List<CustomerActivity> getTopCustomers(int limit) {
+        checkLimit(limit);
+        return reportRepository.topCustomers(limit);
+    }
+
+    @Override
+    public List<RouteStats> getTopRoutes(int limit, BookingStatus status) {
+        checkLimit(limit);
+        return reportRepository.topRoutes(limit, status);
+    }
+
+    @Override
+    public List<HotelOccupancy> getHotelOccupancy(LocalDate from, LocalDate to, BookingStatus status) {
+        checkRange(from, to);
+        return reportRepository.hotelOccupancy(from, to, status);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package service;
+
+import model.Booking;
+import model.BookingStatus;
+import model.PackageSummary;
+import model.TravelPackage;
+import repository.interfaces.BulkTransitionResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+import repository.interfaces.TravelPackageRepositoryInterface;
+import service.interfaces.TravelPackageServiceInterface;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+public class TravelPackageService implements TravelPackageServiceInterface {
+    private final TravelPackageRepositoryInterface packageRepository;
+    private final IntConsumer bookingChanged;
+
+    public TravelPackageService(TravelPackageRepositoryInterface packageRepository) {
+        this(packageRepository, id -> { });
+    }
+
+    /**
+     * @param bookingChanged called with the id of every booking whose status a bulk operation
+     *                       changed, e.g. to invalidate a booking cache
+     */
+    public TravelPackageService(TravelPackageRepositoryInterface packageRepository, IntConsumer bookingChanged) {
+        this.packageRepository = packageRepository;
+        this.bookingChanged = bookingChanged;
+    }
+
+    @Override
+    public void createPackage(TravelPackage travelPackage) {
+        travelPackage.validate();
+        packageRepository.create(travelPackage);
+    }
+
+    @Override
+    public List<TravelPackage> getAllPackages() {
+        return packageRepository.getAll();
+    }
+
+    @Override
+    public Page<TravelPackage> getPackagesPage(PageRequest request) {
+        return packageRepository.getPage(request);
+    }
+
+    @Override
+    public TravelPackage getPackageById(int id) {
+        return packageRepository.getById(id);
+    }
+
+    @Override
+    public void updatePackage(int id, TravelPackage travelPackage) {
+        travelPackage.validate();
+        packageRepository.update(id, travelPackage);
+    }
+
+    @Override
+    public void deletePackage(int id) {
+        packageRepository.delete(id);
+    }
+
+    @Override
+    public int addBookingsToPackage(int packageId, List<Integer> bookingIds) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking ID is required");
+        }
+        return packageRepository.addBookings(packageId, bookingIds);
+    }
+
+    @Override
+    public void removeBookingFromPackage(int packageId, int bookingId) {
+        packageRepository.removeBooking(packageId, bookingId);
+    }
+
+    /**
+     * Totals computed by the database; use this rather than {@code getPackageById(id).calculatePrice()}
+     * when the bookings themselves are not needed.
+     */
+    @Override
+    public PackageSummary getPackageSummary(int id) {
+        return packageRepository.getSummary(id);
+    }
+
+    @Override
+    public List<PackageSummary> getPackageSummariesByCustomer(int customerId) {
+        return packageRepository.getSummariesByCustomer(customerId);
+    }
+
+    /**
+     * Confirms every booking of the package that is not cancelled, in one transaction.
+     * Cancelled bookings are reported as conflicts instead of failing the whole package.
+     */
+    @Override
+    public BulkTransitionResult confirmPackage(int packageId) {
+        return transition(packageId, BookingStatus.CONFIRMED);
+    }
+
+    /**
+     * Cancels every booking of the package that is not already cancelled, in one transaction.
+     */
+    @Override
+    public BulkTransitionResult cancelPackage(int packageId) {
+        return transition(packageId, BookingStatus.CANCELLED);
+    }
+
+    private BulkTransitionResult transition(int packageId, BookingStatus target) {
+        BulkTransitionResult result = packageRepository.transitionBookings(packageId, Booking.STATUS_CHANGEABLE_FROM, target);
+        result.getChanged().forEach(bookingChanged::accept);
+        return result;
+    }
+}
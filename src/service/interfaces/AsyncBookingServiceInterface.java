@@ -0,0 +1,24 @@
+package service.interfaces;
+
+import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncBookingServiceInterface {
+    CompletableFuture<Void> createBooking(Booking booking);
+    CompletableFuture<BatchResult<Booking>> createBookings(List<Booking> bookings);
+    CompletableFuture<List<Booking>> getAllBookings();
+    CompletableFuture<Page<Booking>> getBookingsPage(PageRequest request);
+    CompletableFuture<Booking> getBookingById(int id);
+    CompletableFuture<Void> updateBooking(int id, Booking booking);
+    CompletableFuture<Void> deleteBooking(int id);
+    CompletableFuture<Void> confirmBooking(int id);
+    CompletableFuture<Void> cancelBooking(int id);
+    CompletableFuture<List<Booking>> getSortedBookingsByPrice();
+    CompletableFuture<List<Booking>> getTopBookingsByPrice(int limit, boolean descending, BookingStatus status, String type);
+}
@@ -0,0 +1,21 @@
+package service.interfaces;
+
+import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncCustomerServiceInterface {
+    CompletableFuture<Void> createCustomer(Customer customer);
+    CompletableFuture<BatchResult<Customer>> createCustomers(List<Customer> customers);
+    CompletableFuture<List<Customer>> getAllCustomers();
+    CompletableFuture<Page<Customer>> getCustomersPage(PageRequest request);
+    CompletableFuture<Customer> getCustomerById(int id);
+    CompletableFuture<Optional<Customer>> findCustomerByEmail(String email);
+    CompletableFuture<Void> updateCustomer(int id, Customer customer);
+    CompletableFuture<Void> deleteCustomer(int id);
+}
@@ -3,18 +3,31 @@ package service;
 import exception.DuplicateResourceException;
 import exception.InvalidInputException;
 import exception.ResourceNotFoundException;
+import logging.EventLog;
 import model.Booking;
 import model.BookingStatus;
-import repository.interfaces.CrudRepository;
+import model.FlightBooking;
+import model.HotelBooking;
+import repository.interfaces.BatchResult;
+import repository.interfaces.BookingRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import service.interfaces.BookingServiceInterface;
 import utils.SortingUtils;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class BookingService implements BookingServiceInterface {
-    private final CrudRepository<Booking> bookingRepository;
+    private static final int MAX_LIMIT = 1000;
 
-    public BookingService(CrudRepository<Booking> bookingRepository) {
+    private final BookingRepositoryInterface bookingRepository;
+
+    public BookingService(BookingRepositoryInterface bookingRepository) {
         this.bookingRepository = bookingRepository;
     }
 
@@ -27,11 +40,50 @@ public class BookingService implements BookingServiceInterface {
         bookingRepository.create(booking);
     }
 
+    /**
+     * Applies the checks of {@link #createBooking} to each booking, including the duplicate rule
+     * against stored bookings and against earlier bookings of the same batch. A booking failing
+     * a check is reported under its position and the rest are still created.
+     */
+    @Override
+    public BatchResult<Booking> createBookings(List<Booking> bookings) {
+        List<Booking> valid = new ArrayList<>(bookings.size());
+        List<Integer> positions = new ArrayList<>(bookings.size());
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        Set<List<Object>> batchKeys = new HashSet<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            try {
+                booking.validate();
+                List<Object> key = similarityKey(booking);
+                if (batchKeys.contains(key) || existsSimilarBooking(booking)) {
+                    throw new DuplicateResourceException("Booking", "similar details");
+                }
+                // Like existsSimilar, a cancelled booking does not block later ones
+                if (booking.getStatus() != BookingStatus.CANCELLED) {
+                    batchKeys.add(key);
+                }
+                valid.add(booking);
+                positions.add(i);
+            } catch (RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        BatchResult<Booking> stored = bookingRepository.createAll(valid);
+        stored.getFailures().forEach((index, e) -> failures.put(positions.get(index), e));
+        return new BatchResult<>(stored.getCreated(), failures);
+    }
+
     @Override
     public List<Booking> getAllBookings() {
         return bookingRepository.getAll();
     }
 
+    @Override
+    public Page<Booking> getBookingsPage(PageRequest request) {
+        return bookingRepository.getPage(request);
+    }
+
     @Override
     public Booking getBookingById(int id) {
         Booking booking = bookingRepository.getById(id);
@@ -43,8 +95,8 @@ public class BookingService implements BookingServiceInterface {
 
     @Override
     public void updateBooking(int id, Booking booking) {
-        getBookingById(id);
         booking.validate();
+        // The repository throws ResourceNotFoundException for a missing id, also when nothing is dirty
         bookingRepository.update(id, booking);
     }
 
@@ -59,16 +111,14 @@ public class BookingService implements BookingServiceInterface {
 
     @Override
     public void confirmBooking(int id) {
-        Booking booking = getBookingById(id);
-        booking.confirm();
-        bookingRepository.update(id, booking);
+        bookingRepository.transitionStatus(id, Booking.STATUS_CHANGEABLE_FROM, BookingStatus.CONFIRMED);
+        logStatusChange(id, BookingStatus.CONFIRMED);
     }
 
     @Override
     public void cancelBooking(int id) {
-        Booking booking = getBookingById(id);
-        booking.cancel();
-        bookingRepository.update(id, booking);
+        bookingRepository.transitionStatus(id, Booking.STATUS_CHANGEABLE_FROM, BookingStatus.CANCELLED);
+        logStatusChange(id, BookingStatus.CANCELLED);
     }
 
     @Override
@@ -77,8 +127,38 @@ public class BookingService implements BookingServiceInterface {
         return SortingUtils.sortByPrice(bookings);
     }
 
+    @Override
+    public List<Booking> getTopBookingsByPrice(int limit, boolean descending, BookingStatus status, String type) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new InvalidInputException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (type != null && !type.equals("FLIGHT") && !type.equals("HOTEL")) {
+            throw new InvalidInputException("Unknown booking type: " + type);
+        }
+        return bookingRepository.findTopByPrice(limit, descending, status, type);
+    }
+
     private boolean existsSimilarBooking(Booking booking) {
-        // Логика проверки дубликатов (можно расширить, querying DB)
-        return false;
+        return bookingRepository.existsSimilar(booking);
+    }
+
+    // Customer, date, type and flight number or hotel name: what the duplicate rule compares
+    private static List<Object> similarityKey(Booking booking) {
+        String key;
+        if (booking instanceof FlightBooking) {
+            key = ((FlightBooking) booking).getFlightNumber();
+        } else if (booking instanceof HotelBooking) {
+            key = ((HotelBooking) booking).getHotelName();
+        } else {
+            throw new IllegalArgumentException("Unknown booking type");
+        }
+        return List.of(booking.getCustomerId(), booking.getBookingDate(), booking.getBookingType(), key);
+    }
+
+    private static void logStatusChange(int id, BookingStatus status) {
+        EventLog.getDefault().info("booking.status_changed")
+                .with("bookingId", id)
+                .with("status", status)
+                .publish();
     }
-}
\ No newline at end of file
+}
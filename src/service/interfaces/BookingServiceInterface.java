@@ -1,16 +1,23 @@
 package service.interfaces;
 
 import model.Booking;
+import model.BookingStatus;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 
 import java.util.List;
 
 public interface BookingServiceInterface {
     void createBooking(Booking booking);
+    BatchResult<Booking> createBookings(List<Booking> bookings);
     List<Booking> getAllBookings();
+    Page<Booking> getBookingsPage(PageRequest request);
     Booking getBookingById(int id);
     void updateBooking(int id, Booking booking);
     void deleteBooking(int id);
     void confirmBooking(int id);
     void cancelBooking(int id);
     List<Booking> getSortedBookingsByPrice();
+    List<Booking> getTopBookingsByPrice(int limit, boolean descending, BookingStatus status, String type);
 }
\ No newline at end of file
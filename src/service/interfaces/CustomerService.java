@@ -3,32 +3,64 @@ package service;
 import exception.DuplicateResourceException;
 import exception.ResourceNotFoundException;
 import model.Customer;
-import repository.interfaces.CrudRepository;
+import repository.interfaces.BatchResult;
+import repository.interfaces.CustomerRepositoryInterface;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 import service.interfaces.CustomerServiceInterface;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 public class CustomerService implements CustomerServiceInterface {
-    private final CrudRepository<Customer> customerRepository;
+    private final CustomerRepositoryInterface customerRepository;
 
-    public CustomerService(CrudRepository<Customer> customerRepository) {
+    public CustomerService(CustomerRepositoryInterface customerRepository) {
         this.customerRepository = customerRepository;
     }
 
     @Override
     public void createCustomer(Customer customer) {
         customer.validate();
-        if (customerRepository.getAll().stream().anyMatch(c -> c.getEmail().equals(customer.getEmail()))) {
+        if (customerRepository.existsByEmail(customer.getEmail())) {
             throw new DuplicateResourceException("Customer", "email: " + customer.getEmail());
         }
         customerRepository.create(customer);
     }
 
+    @Override
+    public BatchResult<Customer> createCustomers(List<Customer> customers) {
+        List<Customer> valid = new ArrayList<>(customers.size());
+        List<Integer> positions = new ArrayList<>(customers.size());
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            try {
+                customer.validate();
+                valid.add(customer);
+                positions.add(i);
+            } catch (RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        BatchResult<Customer> stored = customerRepository.createAll(valid);
+        stored.getFailures().forEach((index, e) -> failures.put(positions.get(index), e));
+        return new BatchResult<>(stored.getCreated(), failures);
+    }
+
     @Override
     public List<Customer> getAllCustomers() {
         return customerRepository.getAll();
     }
 
+    @Override
+    public Page<Customer> getCustomersPage(PageRequest request) {
+        return customerRepository.getPage(request);
+    }
+
     @Override
     public Customer getCustomerById(int id) {
         Customer customer = customerRepository.getById(id);
@@ -38,10 +70,15 @@ public class CustomerService implements CustomerServiceInterface {
         return customer;
     }
 
+    @Override
+    public Optional<Customer> findCustomerByEmail(String email) {
+        return customerRepository.findByEmail(email);
+    }
+
     @Override
     public void updateCustomer(int id, Customer customer) {
-        getCustomerById(id);
         customer.validate();
+        // The repository throws ResourceNotFoundException for a missing id, also when nothing is dirty
         customerRepository.update(id, customer);
     }
 
@@ -1,13 +1,20 @@
 package service.interfaces;
 
 import model.Customer;
+import repository.interfaces.BatchResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CustomerServiceInterface {
     void createCustomer(Customer customer);
+    BatchResult<Customer> createCustomers(List<Customer> customers);
     List<Customer> getAllCustomers();
+    Page<Customer> getCustomersPage(PageRequest request);
     Customer getCustomerById(int id);
+    Optional<Customer> findCustomerByEmail(String email);
     void updateCustomer(int id, Customer customer);
     void deleteCustomer(int id);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package service.interfaces;
+
+import model.BookingStatus;
+import model.CustomerActivity;
+import model.HotelOccupancy;
+import model.RevenueBreakdown;
+import model.RouteStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReportServiceInterface {
+    List<RevenueBreakdown> getRevenueByStatus(LocalDate from, LocalDate to);
+    List<RevenueBreakdown> getRevenueByType(LocalDate from, LocalDate to, BookingStatus status);
+    List<RevenueBreakdown> getRevenueByDay(LocalDate from, LocalDate to, BookingStatus status);
+    List<CustomerActivity> getTopCustomers(int limit);
+    List<RouteStats> getTopRoutes(int limit, BookingStatus status);
+    List<HotelOccupancy> getHotelOccupancy(LocalDate from, LocalDate to, BookingStatus status);
+}
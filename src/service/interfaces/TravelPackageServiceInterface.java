@@ -0,0 +1,24 @@
+package service.interfaces;
+
+import model.PackageSummary;
+import model.TravelPackage;
+import repository.interfaces.BulkTransitionResult;
+import repository.interfaces.Page;
+import repository.interfaces.PageRequest;
+
+import java.util.List;
+
+public interface TravelPackageServiceInterface {
+    void createPackage(TravelPackage travelPackage);
+    List<TravelPackage> getAllPackages();
+    Page<TravelPackage> getPackagesPage(PageRequest request);
+    TravelPackage getPackageById(int id);
+    void updatePackage(int id, TravelPackage travelPackage);
+    void deletePackage(int id);
+    int addBookingsToPackage(int packageId, List<Integer> bookingIds);
+    void removeBookingFromPackage(int packageId, int bookingId);
+    PackageSummary getPackageSummary(int id);
+    List<PackageSummary> getPackageSummariesByCustomer(int customerId);
+    BulkTransitionResult confirmPackage(int packageId);
+    BulkTransitionResult cancelPackage(int packageId);
+}
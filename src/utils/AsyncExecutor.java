@@ -0,0 +1,84 @@
+package utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking work on virtual threads while capping how many tasks execute at once.
+ * Each task gets its own virtual thread; tasks beyond the limit park on a semaphore,
+ * which costs no platform thread. Sizing the limit to the connection pool keeps callers
+ * from piling up on the pool's acquire timeout.
+ */
+public class AsyncExecutor implements AutoCloseable {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int concurrencyLimit;
+
+    public AsyncExecutor(int concurrencyLimit) {
+        if (concurrencyLimit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be greater than 0");
+        }
+        this.concurrencyLimit = concurrencyLimit;
+        this.permits = new Semaphore(concurrencyLimit, true);
+    }
+
+    /**
+     * An executor limited to the configured maximum size of the database connection pool.
+     */
+    public static AsyncExecutor forConnectionPool() {
+        return new AsyncExecutor(DatabaseConnection.getMaxPoolSize());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
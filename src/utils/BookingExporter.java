@@ -0,0 +1,123 @@
+package utils;
+
+import model.Booking;
+import model.FlightBooking;
+import model.HotelBooking;
+import repository.BookingRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes bookings as CSV or JSON lines one row at a time, so memory use does not depend
+ * on how many bookings the stream yields.
+ */
+public class BookingExporter {
+
+    private static final String CSV_HEADER = "id,type,customer_id,booking_date,total_price,status," +
+            "flight_number,origin,destination,seat_class,hotel_name,room_type,nights";
+
+    private BookingExporter() {}
+
+    public static long writeCsv(Stream<Booking> bookings, Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.write('\n');
+        long count = 0;
+        Iterator<Booking> it = bookings.iterator();
+        while (it.hasNext()) {
+            Booking b = it.next();
+            out.write(Integer.toString(b.getId()));
+            out.write(',');
+            out.write(b.getBookingType());
+            out.write(',');
+            out.write(Integer.toString(b.getCustomerId()));
+            out.write(',');
+            out.write(b.getBookingDate().toString());
+            out.write(',');
+            // Double.toString would switch to E notation from 10^7
+            out.write(BigDecimal.valueOf(b.getTotalPrice()).toPlainString());
+            out.write(',');
+            out.write(b.getStatus().name());
+            if (b instanceof FlightBooking) {
+                FlightBooking fb = (FlightBooking) b;
+                writeCsvField(out, fb.getFlightNumber());
+                writeCsvField(out, fb.getOrigin());
+                writeCsvField(out, fb.getDestination());
+                writeCsvField(out, fb.getSeatClass().name());
+                out.write(",,,");
+            } else if (b instanceof HotelBooking) {
+                HotelBooking hb = (HotelBooking) b;
+                out.write(",,,,");
+                writeCsvField(out, hb.getHotelName());
+                writeCsvField(out, hb.getRoomType().name());
+                out.write(',');
+                out.write(Integer.toString(hb.getNights()));
+            }
+            out.write('\n');
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    public static long writeJsonLines(Stream<Booking> bookings, Writer out) throws IOException {
+        long count = 0;
+        StringBuilder line = new StringBuilder(256);
+        Iterator<Booking> it = bookings.iterator();
+        while (it.hasNext()) {
+            line.setLength(0);
+            JsonEncoder.booking(line, it.next()).append('\n');
+            out.append(line);
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        out.write(',');
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Usage: {@code java utils.BookingExporter csv|jsonl <output-file> [fetchSize]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BookingExporter csv|jsonl <output-file> [fetchSize]");
+            return;
+        }
+        boolean csv = args[0].equalsIgnoreCase("csv");
+        int fetchSize = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        BookingRepository repository = new BookingRepository();
+        try (Stream<Booking> bookings = repository.streamAll(fetchSize);
+             BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            long count = csv ? writeCsv(bookings, out) : writeJsonLines(bookings, out);
+            System.out.println("Exported " + count + " bookings to " + args[1]);
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+}
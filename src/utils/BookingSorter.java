@@ -0,0 +1,193 @@
+package utils;
+
+import model.Booking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable multi-key sort for large in-memory booking lists.
+ * <p>
+ * Sort keys are extracted once into primitive {@code long[]} columns (prices are mapped to
+ * longs that order exactly like {@link Double#compare}), and an {@code int[]} permutation is
+ * merge-sorted against those columns. No comparator or boxed value is involved per
+ * comparison, and large inputs are sorted in parallel on the common fork/join pool.
+ */
+public class BookingSorter {
+
+    public enum SortKey {
+        PRICE, DATE, STATUS, ID
+    }
+
+    public static final class Order {
+        private final SortKey key;
+        private final boolean descending;
+
+        private Order(SortKey key, boolean descending) {
+            this.key = key;
+            this.descending = descending;
+        }
+
+        public static Order asc(SortKey key) {
+            return new Order(key, false);
+        }
+
+        public static Order desc(SortKey key) {
+            return new Order(key, true);
+        }
+    }
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private BookingSorter() {}
+
+    /**
+     * Returns a new list sorted by the given keys in priority order. Bookings that compare
+     * equal on every key keep their original relative order.
+     */
+    public static List<Booking> sort(List<Booking> bookings, Order... orders) {
+        if (orders.length == 0) {
+            throw new IllegalArgumentException("At least one sort key is required");
+        }
+        Booking[] items = bookings.toArray(new Booking[0]);
+        int n = items.length;
+
+        long[][] columns = new long[orders.length][];
+        for (int k = 0; k < orders.length; k++) {
+            columns[k] = extract(items, orders[k]);
+        }
+
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i;
+        }
+        int[] buffer = new int[n];
+        if (n >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new MergeSortTask(index, buffer, 0, n, columns));
+        } else {
+            mergeSort(index, buffer, 0, n, columns);
+        }
+
+        List<Booking> result = new ArrayList<>(n);
+        for (int i : index) {
+            result.add(items[i]);
+        }
+        return result;
+    }
+
+    private static long[] extract(Booking[] items, Order order) {
+        long[] column = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            Booking b = items[i];
+            long value;
+            switch (order.key) {
+                case PRICE:
+                    value = sortableBits(b.getTotalPrice());
+                    break;
+                case DATE:
+                    value = b.getBookingDate().toEpochDay();
+                    break;
+                case STATUS:
+                    value = b.getStatus().ordinal();
+                    break;
+                default:
+                    value = b.getId();
+                    break;
+            }
+            // Bitwise NOT reverses the order without the overflow that negation has at MIN_VALUE
+            column[i] = order.descending ? ~value : value;
+        }
+        return column;
+    }
+
+    // Maps a double to a long whose signed order matches Double.compare (-0.0 < 0.0, NaN last)
+    static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static int compare(int a, int b, long[][] columns) {
+        for (long[] column : columns) {
+            long x = column[a];
+            long y = column[b];
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void mergeSort(int[] index, int[] buffer, int lo, int hi, long[][] columns) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(index, lo, hi, columns);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(index, buffer, lo, mid, columns);
+        mergeSort(index, buffer, mid, hi, columns);
+        merge(index, buffer, lo, mid, hi, columns);
+    }
+
+    private static void insertionSort(int[] index, int lo, int hi, long[][] columns) {
+        for (int i = lo + 1; i < hi; i++) {
+            int current = index[i];
+            int j = i - 1;
+            while (j >= lo && compare(index[j], current, columns) > 0) {
+                index[j + 1] = index[j];
+                j--;
+            }
+            index[j + 1] = current;
+        }
+    }
+
+    private static void merge(int[] index, int[] buffer, int lo, int mid, int hi, long[][] columns) {
+        if (compare(index[mid - 1], index[mid], columns) <= 0) {
+            return;
+        }
+        System.arraycopy(index, lo, buffer, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            // Taking from the left run on ties is what keeps the sort stable
+            index[k++] = compare(buffer[j], buffer[i], columns) < 0 ? buffer[j++] : buffer[i++];
+        }
+        while (i < mid) {
+            index[k++] = buffer[i++];
+        }
+        while (j < hi) {
+            index[k++] = buffer[j++];
+        }
+    }
+
+    private static final class MergeSortTask extends RecursiveAction {
+        private final int[] index;
+        private final int[] buffer;
+        private final int lo;
+        private final int hi;
+        private final long[][] columns;
+
+        MergeSortTask(int[] index, int[] buffer, int lo, int hi, long[][] columns) {
+            this.index = index;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.columns = columns;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                mergeSort(index, buffer, lo, hi, columns);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeSortTask(index, buffer, lo, mid, columns),
+                    new MergeSortTask(index, buffer, mid, hi, columns));
+            merge(index, buffer, lo, mid, hi, columns);
+        }
+    }
+}
@@ -0,0 +1,672 @@
+package utils;
+
+import logging.EventLog;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool. Borrowed connections are leases: calling close() on them
+ * hands the physical connection back to the pool instead of closing it.
+ * <p>
+ * Each physical connection also keeps a bounded LRU cache of its prepared statements. Closing a
+ * statement obtained through {@code prepareStatement(sql)} or {@code prepareStatement(sql, keys)}
+ * returns it to the cache, and the next lease preparing the same SQL gets it back instead of a
+ * new one. The driver can then keep the server-side prepared statement (PostgreSQL switches to
+ * one after a few executions of the same statement object), so hot statements are parsed and
+ * planned once per connection.
+ * <p>
+ * Leak detection is off unless a leak threshold is given. With it on, every borrow records the
+ * calling frames (a bounded stack walk), and a lease held longer than the threshold is logged
+ * once as {@code db.connection_leak} with the place it was borrowed.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int BORROW_SITE_FRAMES = 16;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    // Shared by all pools; getStats() still reports per pool
+    private static final Timer ACQUIRE_TIME = MetricsRegistry.getDefault().timer("db_connection_acquire_seconds");
+    private static final Counter ACQUIRE_TIMEOUTS = MetricsRegistry.getDefault().counter("db_connection_timeouts_total");
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+
+    private int total;
+    private int waiters;
+    private boolean closed;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+    private final AtomicLongArray waitHistogram = new AtomicLongArray(PoolStats.WAIT_BUCKET_BOUNDS_MICROS.length);
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis) {
+        this(factory, minSize, maxSize, acquireTimeoutMillis, idleTimeoutMillis, leakThresholdMillis,
+                DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param statementCacheSize prepared statements cached per connection; 0 disables the cache
+     */
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Connection factory cannot be null");
+        }
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool size must satisfy 0 <= min <= max and max > 0");
+        }
+        if (acquireTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Acquire timeout must be greater than 0");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size cannot be negative");
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, Math.min(
+                idleTimeoutMillis > 0 ? idleTimeoutMillis / 2 : Long.MAX_VALUE,
+                leakThresholdMillis > 0 ? leakThresholdMillis / 2 : 30_000));
+        housekeeper.scheduleAtFixedRate(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean mustCreate = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++;
+                        mustCreate = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        ACQUIRE_TIMEOUTS.increment();
+                        throw new SQLTransientConnectionException(
+                                "Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection", "08001");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mustCreate) {
+                try {
+                    candidate = new PooledConnection(factory.create());
+                    created.incrementAndGet();
+                } catch (SQLException | RuntimeException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!isUsable(candidate)) {
+                destroy(candidate);
+                continue;
+            }
+
+            long waitNanos = System.nanoTime() - start;
+            waitHistogram.incrementAndGet(PoolStats.bucketFor(TimeUnit.NANOSECONDS.toMicros(waitNanos)));
+            ACQUIRE_TIME.record(waitNanos);
+            acquired.incrementAndGet();
+            return lease(candidate);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PoolStats getStats() {
+        long[] histogram = new long[waitHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = waitHistogram.get(i);
+        }
+        lock.lock();
+        try {
+            return new PoolStats(total, total - idle.size(), idle.size(), waiters, acquired.get(), timeouts.get(),
+                    created.get(), destroyed.get(), leaksDetected.get(), histogram,
+                    statementHits.get(), statementMisses.get(), statementEvictions.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        Deque<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : toClose) {
+            destroy(pc);
+        }
+    }
+
+    private Connection lease(PooledConnection pc) {
+        Lease lease = new Lease(pc, leakThresholdMillis > 0 ? borrowSite() : null);
+        leases.add(lease);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, lease);
+    }
+
+    private void release(Lease lease) {
+        leases.remove(lease);
+        PooledConnection pc = lease.pooled;
+        if (pc.statements != null) {
+            pc.statements.checkInAll();
+        }
+        try {
+            if (!pc.connection.getAutoCommit()) {
+                pc.connection.rollback();
+                pc.connection.setAutoCommit(true);
+            }
+            pc.connection.clearWarnings();
+        } catch (SQLException e) {
+            destroy(pc);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+            } else {
+                pc.lastUsed = System.nanoTime();
+                idle.addFirst(pc);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(pc);
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            return pc.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        closeQuietly(pc);
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        destroyed.incrementAndGet();
+        try {
+            pc.connection.close();
+        } catch (SQLException ignored) {
+            // The connection is being discarded anyway
+        }
+    }
+
+    private void housekeep() {
+        evictIdle();
+        fillToMinimum();
+        detectLeaks();
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            PooledConnection pc;
+            try {
+                pc = new PooledConnection(factory.create());
+                created.incrementAndGet();
+            } catch (SQLException | RuntimeException e) {
+                releaseSlot();
+                return;
+            }
+            lock.lock();
+            try {
+                if (!closed) {
+                    idle.addLast(pc);
+                    available.signal();
+                    continue;
+                }
+                total--;
+            } finally {
+                lock.unlock();
+            }
+            closeQuietly(pc);
+            return;
+        }
+    }
+
+    private void evictIdle() {
+        if (idleTimeoutMillis <= 0) {
+            return;
+        }
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        Deque<PooledConnection> evicted = new ArrayDeque<>();
+        lock.lock();
+        try {
+            // Oldest idle connections sit at the tail because releases push to the head
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total - evicted.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (pc.lastUsed - cutoff > 0) {
+                    break;
+                }
+                it.remove();
+                evicted.add(pc);
+            }
+            total -= evicted.size();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : evicted) {
+            closeQuietly(pc);
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Lease lease : leases) {
+            if (!lease.reported && TimeUnit.NANOSECONDS.toMillis(now - lease.acquiredAt) > leakThresholdMillis) {
+                lease.reported = true;
+                leaksDetected.incrementAndGet();
+                EventLog.getDefault().warn("db.connection_leak")
+                        .with("heldMs", TimeUnit.NANOSECONDS.toMillis(now - lease.acquiredAt))
+                        .with("acquiredAt", format(lease.acquiredBy))
+                        .publish();
+            }
+        }
+    }
+
+    /**
+     * The caller's frames, starting below the pool and {@link DatabaseConnection}.
+     */
+    private static StackTraceElement[] borrowSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .dropWhile(frame -> isPoolFrame(frame.getClassName()))
+                .limit(BORROW_SITE_FRAMES)
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .toArray(StackTraceElement[]::new));
+    }
+
+    private static boolean isPoolFrame(String className) {
+        String pool = ConnectionPool.class.getName();
+        return className.equals(pool) || className.startsWith(pool + "$")
+                || className.equals(DatabaseConnection.class.getName());
+    }
+
+    private static String format(StackTraceElement[] frames) {
+        StringBuilder stack = new StringBuilder();
+        for (StackTraceElement frame : frames) {
+            if (stack.length() > 0) {
+                stack.append('\n');
+            }
+            stack.append(frame);
+        }
+        return stack.toString();
+    }
+
+    /**
+     * prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached; statements
+     * with cursor options are left alone because their holders tune them (e.g. fetch size).
+     */
+    private static boolean cacheable(Object[] args) {
+        return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+    }
+
+    private class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private volatile long lastUsed;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statements = statementCacheSize > 0 ? new StatementCache(connection) : null;
+            this.lastUsed = System.nanoTime();
+        }
+    }
+
+    private static final class StatementKey {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        StatementKey(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof StatementKey)) {
+                return false;
+            }
+            StatementKey other = (StatementKey) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    private static final class CachedStatement {
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private boolean inUse;
+        // Dropped from the cache while checked out; closed when the holder is done with it
+        private boolean evicted;
+
+        CachedStatement(StatementKey key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Prepared statements of one physical connection, least recently used first. Only the thread
+     * holding the connection's lease touches it, so it needs no locking.
+     */
+    private class StatementCache {
+        private final Connection connection;
+        private final LinkedHashMap<StatementKey, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        StatementCache(Connection connection) {
+            this.connection = connection;
+        }
+
+        PreparedStatement prepare(Lease lease, Connection leaseProxy, String sql, int autoGeneratedKeys) throws SQLException {
+            StatementKey key = new StatementKey(sql, autoGeneratedKeys);
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                statementHits.incrementAndGet();
+                SqlCatalog.recordLookup(sql, true);
+                cached.inUse = true;
+                return handle(cached, lease, leaseProxy);
+            }
+            statementMisses.incrementAndGet();
+            SqlCatalog.recordLookup(sql, false);
+            PreparedStatement statement = autoGeneratedKeys == Statement.NO_GENERATED_KEYS
+                    ? connection.prepareStatement(sql)
+                    : connection.prepareStatement(sql, autoGeneratedKeys);
+            if (cached != null) {
+                // The same SQL is already open on this lease; this copy is an ordinary statement
+                return statement;
+            }
+            cached = new CachedStatement(key, statement);
+            cached.inUse = true;
+            statements.put(key, cached);
+            evictOverflow();
+            return handle(cached, lease, leaseProxy);
+        }
+
+        private void evictOverflow() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                it.remove();
+                statementEvictions.incrementAndGet();
+                if (eldest.inUse) {
+                    eldest.evicted = true;
+                } else {
+                    closeStatement(eldest);
+                }
+            }
+        }
+
+        /**
+         * Makes a statement available again, resetting what the previous holder bound to it.
+         */
+        void checkIn(CachedStatement cached) {
+            cached.inUse = false;
+            if (cached.evicted) {
+                closeStatement(cached);
+                return;
+            }
+            try {
+                cached.statement.clearParameters();
+                cached.statement.clearBatch();
+            } catch (SQLException e) {
+                statements.remove(cached.key);
+                closeStatement(cached);
+            }
+        }
+
+        /**
+         * Checks in statements the lease holder did not close before returning the connection.
+         */
+        void checkInAll() {
+            for (CachedStatement cached : statements.values().toArray(new CachedStatement[0])) {
+                if (cached.inUse) {
+                    checkIn(cached);
+                }
+            }
+        }
+
+        private PreparedStatement handle(CachedStatement cached, Lease lease, Connection leaseProxy) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandle(this, cached, lease, leaseProxy));
+        }
+
+        private void closeStatement(CachedStatement cached) {
+            try {
+                cached.statement.close();
+            } catch (SQLException ignored) {
+                // The statement is being discarded anyway
+            }
+        }
+    }
+
+    /**
+     * What a lease holder sees of a cached statement: closing it checks the statement back in.
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private final StatementCache cache;
+        private final CachedStatement cached;
+        private final Lease lease;
+        private final Connection leaseProxy;
+        private boolean closed;
+
+        StatementHandle(StatementCache cache, CachedStatement cached, Lease lease, Connection leaseProxy) {
+            this.cache = cache;
+            this.cached = cached;
+            this.lease = lease;
+            this.leaseProxy = leaseProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        // Once the lease is gone the pool has checked the statement in already
+                        if (!lease.released) {
+                            cache.checkIn(cached);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || lease.released;
+                case "getConnection":
+                    return leaseProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+            if (closed || lease.released) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        // Null when leak detection is off
+        private final StackTraceElement[] acquiredBy;
+        private final long acquiredAt = System.nanoTime();
+        private volatile boolean released;
+        private volatile boolean reported;
+
+        Lease(PooledConnection pooled, StackTraceElement[] acquiredBy) {
+            this.pooled = pooled;
+            this.acquiredBy = acquiredBy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.connection + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection lease has already been returned to the pool");
+            }
+            if (pooled.statements != null && method.getName().equals("prepareStatement") && cacheable(args)) {
+                int keys = args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1];
+                return pooled.statements.prepare(this, (Connection) proxy, (String) args[0], keys);
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,23 +1,71 @@
 package utils;
 
+import metrics.MetricsRegistry;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.function.ToDoubleFunction;
 
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:postgresql://localhost:5432/travel_booking";
-    private static final String USER = "postgres";
-    private static final String PASSWORD = "0311";
+    private static final String URL = System.getProperty("db.url", "jdbc:postgresql://localhost:5432/travel_booking");
+    private static final String USER = System.getProperty("db.user", "postgres");
+    private static final String PASSWORD = System.getProperty("db.password", "0311");
+
+    private static final int POOL_MIN_SIZE = Integer.getInteger("db.pool.min", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("db.pool.max", 10);
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("db.pool.acquireTimeoutMs", 5_000);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("db.pool.idleTimeoutMs", 600_000);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("db.pool.leakThresholdMs", 0);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("db.pool.statementCacheSize",
+            ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE);
+
+    private static volatile ConnectionPool pool;
+
+    static {
+        poolGauge("db_pool_connections_active", PoolStats::getActive);
+        poolGauge("db_pool_connections_idle", PoolStats::getIdle);
+        poolGauge("db_pool_waiters", PoolStats::getWaiters);
+        poolGauge("db_pool_leaks_detected", PoolStats::getLeaksDetected);
+        poolGauge("db_statement_cache_hit_ratio", PoolStats::getStatementCacheHitRate);
+    }
 
     private DatabaseConnection() {}
 
+    /**
+     * Borrows a connection from the shared pool. Closing the returned connection
+     * gives it back to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("org.postgresql.Driver");
-            return DriverManager.getConnection(URL, USER, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("PostgreSQL driver not found", e);
+        return pool().getConnection();
+    }
+
+    /**
+     * Replaces the shared pool, e.g. with one backed by an in-process database for tests.
+     * The previous pool, if any, is closed.
+     */
+    public static synchronized void configure(ConnectionPool replacement) {
+        ConnectionPool previous = pool;
+        pool = replacement;
+        if (previous != null && previous != replacement) {
+            previous.close();
+        }
+    }
+
+    public static PoolStats getPoolStats() {
+        return pool().getStats();
+    }
+
+    public static int getMaxPoolSize() {
+        return pool().getMaxSize();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
@@ -29,4 +77,55 @@ public class DatabaseConnection {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gauge over the current pool's stats; reads 0 until the pool exists rather than creating it.
+     */
+    private static void poolGauge(String name, ToDoubleFunction<PoolStats> stat) {
+        MetricsRegistry.getDefault().gauge(name, () -> {
+            ConnectionPool current = pool;
+            return current == null ? 0 : stat.applyAsDouble(current.getStats());
+        });
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(DatabaseConnection::openUnpooledConnection, POOL_MIN_SIZE,
+                            POOL_MAX_SIZE, ACQUIRE_TIMEOUT_MS, IDLE_TIMEOUT_MS, LEAK_THRESHOLD_MS, STATEMENT_CACHE_SIZE);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Whether {@code e} was caused by the database being unreachable (a pool acquire timeout or
+     * an SQLState of class 08) rather than by the statement or its data.
+     */
+    public static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Opens a physical connection that bypasses the pool.
+     */
+    public static Connection openUnpooledConnection() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+}
@@ -0,0 +1,125 @@
+package utils;
+
+import model.Booking;
+import model.Customer;
+import model.CustomerActivity;
+import model.FlightBooking;
+import model.HotelBooking;
+import model.HotelOccupancy;
+import model.RevenueBreakdown;
+import model.RouteStats;
+
+/**
+ * Hand-written JSON encoding for the model classes. Appends straight into a caller-supplied
+ * {@link StringBuilder}, so encoding a response needs no reflection and no intermediate maps.
+ */
+public class JsonEncoder {
+
+    private JsonEncoder() {}
+
+    public static StringBuilder booking(StringBuilder sb, Booking b) {
+        sb.append("{\"id\":").append(b.getId())
+                .append(",\"type\":\"").append(b.getBookingType())
+                .append("\",\"customerId\":").append(b.getCustomerId())
+                .append(",\"bookingDate\":\"").append(b.getBookingDate())
+                .append("\",\"totalPrice\":").append(b.getTotalPrice())
+                .append(",\"status\":\"").append(b.getStatus().name()).append('"');
+        if (b instanceof FlightBooking) {
+            FlightBooking fb = (FlightBooking) b;
+            field(sb, "flightNumber", fb.getFlightNumber());
+            field(sb, "origin", fb.getOrigin());
+            field(sb, "destination", fb.getDestination());
+            field(sb, "seatClass", fb.getSeatClass().name());
+        } else if (b instanceof HotelBooking) {
+            HotelBooking hb = (HotelBooking) b;
+            field(sb, "hotelName", hb.getHotelName());
+            field(sb, "roomType", hb.getRoomType().name());
+            sb.append(",\"nights\":").append(hb.getNights());
+        }
+        return sb.append('}');
+    }
+
+    public static StringBuilder customer(StringBuilder sb, Customer c) {
+        sb.append("{\"id\":").append(c.getId());
+        field(sb, "name", c.getName());
+        field(sb, "email", c.getEmail());
+        field(sb, "phone", c.getPhone());
+        field(sb, "passportNumber", c.getPassportNumber());
+        return sb.append('}');
+    }
+
+    public static StringBuilder revenue(StringBuilder sb, RevenueBreakdown r) {
+        sb.append("{\"key\":");
+        string(sb, r.getKey());
+        return sb.append(",\"bookings\":").append(r.getBookingCount())
+                .append(",\"revenue\":").append(r.getRevenue()).append('}');
+    }
+
+    public static StringBuilder customerActivity(StringBuilder sb, CustomerActivity c) {
+        sb.append("{\"customerId\":").append(c.getCustomerId());
+        field(sb, "name", c.getCustomerName());
+        field(sb, "email", c.getCustomerEmail());
+        return sb.append(",\"bookings\":").append(c.getBookingCount())
+                .append(",\"totalSpent\":").append(c.getTotalSpent()).append('}');
+    }
+
+    public static StringBuilder route(StringBuilder sb, RouteStats r) {
+        sb.append("{\"origin\":");
+        string(sb, r.getOrigin());
+        field(sb, "destination", r.getDestination());
+        return sb.append(",\"bookings\":").append(r.getBookingCount())
+                .append(",\"revenue\":").append(r.getRevenue()).append('}');
+    }
+
+    public static StringBuilder hotelOccupancy(StringBuilder sb, HotelOccupancy h) {
+        sb.append("{\"hotelName\":");
+        string(sb, h.getHotelName());
+        return sb.append(",\"bookings\":").append(h.getBookingCount())
+                .append(",\"nights\":").append(h.getNights())
+                .append(",\"revenue\":").append(h.getRevenue()).append('}');
+    }
+
+    /**
+     * Appends {@code ,"name":"value"} with the value escaped.
+     */
+    public static StringBuilder field(StringBuilder sb, String name, String value) {
+        sb.append(",\"").append(name).append("\":");
+        return string(sb, value);
+    }
+
+    public static StringBuilder string(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00");
+                        sb.append(Character.forDigit(c >> 4, 16));
+                        sb.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,249 @@
+package utils;
+
+import exception.InvalidInputException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small recursive-descent JSON parser for request bodies. Objects become
+ * {@link LinkedHashMap}s, arrays {@link ArrayList}s, numbers {@link Long} or {@link Double}.
+ * Nesting deeper than {@link #MAX_DEPTH} is rejected rather than recursed into.
+ */
+public class JsonParser {
+    public static final int MAX_DEPTH = 64;
+
+    private final String input;
+    private int pos;
+    private int depth;
+
+    private JsonParser(String input) {
+        this.input = input;
+    }
+
+    public static Object parse(String input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Invalid JSON: empty body");
+        }
+        JsonParser parser = new JsonParser(input);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != input.length()) {
+            throw parser.error("unexpected trailing content");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String input) {
+        Object value = parse(input);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Invalid JSON: expected an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private Object readValue() {
+        if (pos >= input.length()) {
+            throw error("unexpected end of input");
+        }
+        char c = input.charAt(pos);
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expect("true");
+                return Boolean.TRUE;
+            case 'f':
+                expect("false");
+                return Boolean.FALSE;
+            case 'n':
+                expect("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw error("unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        enter();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            depth--;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("expected a field name");
+            }
+            String key = readString();
+            skipWhitespace();
+            if (peek() != ':') {
+                throw error("expected ':'");
+            }
+            pos++;
+            skipWhitespace();
+            map.put(key, readValue());
+            skipWhitespace();
+            char c = peek();
+            pos++;
+            if (c == '}') {
+                depth--;
+                return map;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> list = new ArrayList<>();
+        enter();
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            depth--;
+            return list;
+        }
+        while (true) {
+            skipWhitespace();
+            list.add(readValue());
+            skipWhitespace();
+            char c = peek();
+            pos++;
+            if (c == ']') {
+                depth--;
+                return list;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String readString() {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while (true) {
+            if (pos >= input.length()) {
+                throw error("unterminated string");
+            }
+            char c = input.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= input.length()) {
+                throw error("unterminated escape");
+            }
+            char e = input.charAt(pos++);
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > input.length()) {
+                        throw error("truncated unicode escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(input.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("invalid unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("invalid escape '\\" + e + "'");
+            }
+        }
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean decimal = false;
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            pos++;
+        }
+        String text = input.substring(start, pos);
+        try {
+            return decimal ? (Object) Double.parseDouble(text) : (Object) Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw error("invalid number '" + text + "'");
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw new InvalidInputException("Invalid JSON at position " + pos + ": nested deeper than " + MAX_DEPTH + " levels");
+        }
+        pos++;
+    }
+
+    private void expect(String literal) {
+        if (!input.startsWith(literal, pos)) {
+            throw error("expected '" + literal + "'");
+        }
+        pos += literal.length();
+    }
+
+    private char peek() {
+        if (pos >= input.length()) {
+            throw error("unexpected end of input");
+        }
+        return input.charAt(pos);
+    }
+
+    private void skipWhitespace() {
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+    }
+}
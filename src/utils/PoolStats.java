@@ -0,0 +1,122 @@
+package utils;
+
+import java.util.Arrays;
+
+public class PoolStats {
+    // Upper bounds (inclusive, in microseconds) of the acquire wait histogram buckets.
+    // The last bucket catches everything slower than the previous bound.
+    public static final long[] WAIT_BUCKET_BOUNDS_MICROS = {
+            100, 500, 1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000, Long.MAX_VALUE
+    };
+
+    private final int total;
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final long acquired;
+    private final long timeouts;
+    private final long created;
+    private final long destroyed;
+    private final long leaksDetected;
+    private final long[] waitHistogram;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int total, int active, int idle, int waiters, long acquired, long timeouts,
+                     long created, long destroyed, long leaksDetected, long[] waitHistogram,
+                     long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.total = total;
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.acquired = acquired;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.leaksDetected = leaksDetected;
+        this.waitHistogram = waitHistogram.clone();
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    static int bucketFor(long waitMicros) {
+        for (int i = 0; i < WAIT_BUCKET_BOUNDS_MICROS.length; i++) {
+            if (waitMicros <= WAIT_BUCKET_BOUNDS_MICROS[i]) {
+                return i;
+            }
+        }
+        return WAIT_BUCKET_BOUNDS_MICROS.length - 1;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long[] getWaitHistogram() {
+        return waitHistogram.clone();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * Statements that had to be prepared because no cached copy was free on the connection.
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    public double getStatementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "PoolStats[total=%d, active=%d, idle=%d, waiters=%d, acquired=%d, timeouts=%d, created=%d, destroyed=%d, leaks=%d, waitHistogram=%s, " +
+                        "statementCache=%d hits/%d misses/%d evictions]",
+                total, active, idle, waiters, acquired, timeouts, created, destroyed, leaksDetected,
+                Arrays.toString(waitHistogram), statementCacheHits, statementCacheMisses, statementCacheEvictions
+        );
+    }
+}
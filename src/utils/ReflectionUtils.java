@@ -1,21 +1,30 @@
 package utils;
 
+import logging.EventLog;
+
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.StringJoiner;
 
 public class ReflectionUtils {
     public static void inspect(Object obj) {
         Class<?> clazz = obj.getClass();
-        System.out.println("Class Name: " + clazz.getSimpleName());
 
-        System.out.println("\nFields:");
+        StringJoiner fields = new StringJoiner(", ");
         for (Field field : clazz.getDeclaredFields()) {
-            System.out.println(" - " + field.getName() + " (" + field.getType().getSimpleName() + ")");
+            fields.add(field.getName() + " (" + field.getType().getSimpleName() + ")");
         }
 
-        System.out.println("\nMethods:");
+        StringJoiner methods = new StringJoiner(", ");
         for (Method method : clazz.getDeclaredMethods()) {
-            System.out.println(" - " + method.getName());
+            methods.add(method.getName());
         }
+
+        // One event rather than println lines, so the listing cannot interleave with the event log
+        EventLog.getDefault().info("reflection.inspected")
+                .with("class", clazz.getSimpleName())
+                .with("fields", fields.toString())
+                .with("methods", methods.toString())
+                .publish();
     }
-}
\ No newline at end of file
+}
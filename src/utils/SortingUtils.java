@@ -2,13 +2,43 @@ package utils;
 
 import model.Booking;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
 
 public class SortingUtils {
+    private static final int INITIAL_HEAP_CAPACITY = 64;
+
     public static List<Booking> sortByPrice(List<Booking> bookings) {
-        return bookings.stream()
-                .sorted((b1, b2) -> Double.compare(b1.getTotalPrice(), b2.getTotalPrice()))
-                .collect(Collectors.toList());
+        return BookingSorter.sort(bookings, BookingSorter.Order.asc(BookingSorter.SortKey.PRICE));
+    }
+
+    /**
+     * The k cheapest (or most expensive) bookings in price order, using a heap bounded to k
+     * entries: O(n log k) time and O(k) extra space instead of sorting the whole list.
+     */
+    public static List<Booking> topKByPrice(Iterable<Booking> bookings, int k, boolean descending) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be greater than 0");
+        }
+        Comparator<Booking> order = Comparator.comparingDouble(Booking::getTotalPrice);
+        if (descending) {
+            order = order.reversed();
+        }
+        // The heap head is the worst of the current best k, so it is the one to replace. It grows
+        // as needed rather than being sized up front from k, which may be far larger than the input.
+        PriorityQueue<Booking> heap = new PriorityQueue<>(Math.min(k, INITIAL_HEAP_CAPACITY), order.reversed());
+        for (Booking booking : bookings) {
+            if (heap.size() < k) {
+                heap.add(booking);
+            } else if (order.compare(booking, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(booking);
+            }
+        }
+        List<Booking> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Names for the SQL statements the repositories prepare. Repositories declare their statement
+ * constants through {@link #register}, which gives every copy of a statement the same text, and
+ * the connection pool's statement cache counts hits and misses per registered statement.
+ */
+public final class SqlCatalog {
+
+    public static final class Entry {
+        private final String name;
+        private final String sql;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private Entry(String name, String sql) {
+            this.name = name;
+            this.sql = sql;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /**
+         * Times the statement had to be prepared on a connection, i.e. parsed again.
+         */
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public double getHitRate() {
+            long hit = hits.sum();
+            long total = hit + misses.sum();
+            return total == 0 ? 0 : (double) hit / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: hits=%d, misses=%d, hitRate=%.3f", name, getHits(), getMisses(), getHitRate());
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Entry> BY_SQL = new ConcurrentHashMap<>();
+
+    private SqlCatalog() {}
+
+    /**
+     * Registers {@code sql} under {@code name} and returns it; a statement registered twice keeps
+     * its first name.
+     */
+    public static String register(String name, String sql) {
+        BY_SQL.putIfAbsent(sql, new Entry(name, sql));
+        return sql;
+    }
+
+    /**
+     * Registered statements ordered by name.
+     */
+    public static List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(BY_SQL.values());
+        entries.sort(Comparator.comparing(Entry::getName));
+        return entries;
+    }
+
+    static void recordLookup(String sql, boolean hit) {
+        Entry entry = BY_SQL.get(sql);
+        if (entry != null) {
+            (hit ? entry.hits : entry.misses).increment();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the pool against an in-memory H2 database, so no PostgreSQL server is needed.
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static ConnectionPool.ConnectionFactory h2() {
+        return () -> DriverManager.getConnection(URL, "sa", "");
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        pool = new ConnectionPool(h2(), 0, 2, 1_000, 0, 0);
+
+        try (Connection first = pool.getConnection()) {
+            assertEquals(1, query(first));
+        }
+        try (Connection second = pool.getConnection()) {
+            assertEquals(1, query(second));
+            assertEquals(1, pool.getStats().getActive());
+        }
+
+        PoolStats stats = pool.getStats();
+        assertEquals(1, stats.getCreated());
+        assertEquals(2, stats.getAcquired());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    void closedLeaseRejectsFurtherUse() throws SQLException {
+        pool = new ConnectionPool(h2(), 0, 1, 1_000, 0, 0);
+
+        Connection lease = pool.getConnection();
+        lease.close();
+
+        assertTrue(lease.isClosed());
+        assertThrows(SQLException.class, () -> lease.prepareStatement("SELECT 1"));
+        // The physical connection went back to the pool
+        try (Connection next = pool.getConnection()) {
+            assertFalse(next.isClosed());
+        }
+        assertEquals(1, pool.getStats().getCreated());
+    }
+
+    @Test
+    void exhaustedPoolTimesOut() throws SQLException {
+        pool = new ConnectionPool(h2(), 0, 1, 100, 0, 0);
+
+        try (Connection held = pool.getConnection()) {
+            long start = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+            assertTrue(System.nanoTime() - start >= 100_000_000L);
+        }
+
+        assertEquals(1, pool.getStats().getTimeouts());
+        try (Connection afterRelease = pool.getConnection()) {
+            assertEquals(1, query(afterRelease));
+        }
+    }
+
+    @Test
+    void idleConnectionsAboveMinimumAreEvicted() throws Exception {
+        pool = new ConnectionPool(h2(), 1, 3, 1_000, 200, 0);
+
+        Connection a = pool.getConnection();
+        Connection b = pool.getConnection();
+        Connection c = pool.getConnection();
+        a.close();
+        b.close();
+        c.close();
+        assertEquals(3, pool.getStats().getIdle());
+
+        assertTrue(eventually(() -> pool.getStats().getTotal() == 1), "idle connections were not evicted");
+        assertEquals(2, pool.getStats().getDestroyed());
+    }
+
+    @Test
+    void leaseHeldPastThresholdIsReportedOnce() throws Exception {
+        pool = new ConnectionPool(h2(), 0, 2, 1_000, 0, 100);
+
+        try (Connection leaked = pool.getConnection()) {
+            assertTrue(eventually(() -> pool.getStats().getLeaksDetected() == 1), "leak was not reported");
+            // The housekeeper runs again, but the same lease is not reported twice
+            Thread.sleep(1_500);
+            assertEquals(1, pool.getStats().getLeaksDetected());
+        }
+
+        try (Connection quick = pool.getConnection()) {
+            assertEquals(1, query(quick));
+        }
+        assertEquals(1, pool.getStats().getLeaksDetected());
+    }
+
+    @Test
+    void statementsAreCachedAcrossLeases() throws SQLException {
+        pool = new ConnectionPool(h2(), 0, 1, 1_000, 0, 0, 4);
+
+        PreparedStatement first;
+        try (Connection lease = pool.getConnection();
+             PreparedStatement stmt = lease.prepareStatement("SELECT 1")) {
+            first = stmt.unwrap(PreparedStatement.class);
+        }
+        try (Connection lease = pool.getConnection();
+             PreparedStatement stmt = lease.prepareStatement("SELECT 1")) {
+            assertSame(first, stmt.unwrap(PreparedStatement.class));
+        }
+
+        assertEquals(1, pool.getStats().getStatementCacheHits());
+        assertEquals(1, pool.getStats().getStatementCacheMisses());
+    }
+
+    private static int query(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return condition.getAsBoolean();
+    }
+}